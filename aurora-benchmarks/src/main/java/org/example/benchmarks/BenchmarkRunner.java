@@ -0,0 +1,31 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запуск бенчмарков с профилировщиком GC (скорость аллокаций) и выгрузкой результатов в CSV,
+ * где каждая строка — точка кривой масштабирования (бенчмарк × userCount).
+ * Принимает стандартные аргументы JMH, например {@code -p userCount=1000,2000} или регулярное выражение бенчмарка.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.CSV))
+                .result(commandLine.getResult().orElse("jmh-result.csv"))
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.benchmarks;
+
+import org.example.modules.profile_matching.MatchPlanner;
+import org.example.modules.profile_matching.TextSimilarity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Жадное распределение по парам на заранее отсортированном списке кандидатов.
+ * Для каждого пользователя генерируется {@code candidatesPerUser} случайных соседей с оценками сходства.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class MatchPlannerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int userCount;
+
+    @Param({"10"})
+    public int candidatesPerUser;
+
+    private List<Long> userIds;
+    private List<TextSimilarity.SimilarityPair> candidates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        userIds = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            userIds.add(100_000_000L + i);
+        }
+
+        candidates = new ArrayList<>(userCount * candidatesPerUser);
+        for (int i = 0; i < userCount; i++) {
+            for (int j = 0; j < candidatesPerUser; j++) {
+                int partner = random.nextInt(userCount);
+                if (partner != i) {
+                    candidates.add(new TextSimilarity.SimilarityPair(userIds.get(i), userIds.get(partner), (float) random.nextDouble(10.0)));
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(TextSimilarity.SimilarityPair::score).reversed());
+    }
+
+    @Benchmark
+    public MatchPlanner.MatchPlan plan() {
+        return MatchPlanner.plan(userIds, candidates);
+    }
+}
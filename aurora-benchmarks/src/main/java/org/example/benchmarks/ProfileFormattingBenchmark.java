@@ -0,0 +1,37 @@
+package org.example.benchmarks;
+
+import org.example.messaging.Templates;
+import org.example.models.UserInfo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Форматирование карточек всех анкет корпуса, как при рассылке результатов подбора.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ProfileFormattingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int userCount;
+
+    private UserInfo[] users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        users = SyntheticProfiles.generate(userCount, 42L);
+    }
+
+    @Benchmark
+    public void formatUserProfile(Blackhole blackhole) {
+        for (UserInfo user : users) {
+            blackhole.consume(Templates.profileCard(user, "@user" + user.getUserId()));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.benchmarks;
+
+import org.example.models.UserInfo;
+
+import java.util.SplittableRandom;
+
+/**
+ * Генератор синтетических русскоязычных анкет. Слова тем выбираются с перекосом в сторону популярных,
+ * как в реальных анкетах, поэтому у документов есть и частые, и редкие общие термины.
+ */
+public final class SyntheticProfiles {
+
+    private static final String[] NAMES = {
+            "Анна", "Мария", "Екатерина", "Дарья", "Полина", "Алиса", "Виктория", "София", "Ксения", "Елизавета",
+            "Александр", "Максим", "Иван", "Артём", "Дмитрий", "Никита", "Михаил", "Егор", "Кирилл", "Андрей"
+    };
+
+    private static final String[] TOPICS = {
+            "путешествия", "музыка", "кино", "сериалы", "книги", "фантастика", "программирование", "java", "python",
+            "машинное обучение", "нейросети", "стартапы", "бизнес", "маркетинг", "дизайн", "фотография", "живопись",
+            "театр", "джаз", "рок", "классическая музыка", "гитара", "фортепиано", "футбол", "хоккей", "баскетбол",
+            "теннис", "бег", "йога", "плавание", "велосипед", "горы", "походы", "кулинария", "кофе", "чай", "вино",
+            "настольные игры", "шахматы", "видеоигры", "аниме", "психология", "философия", "история", "политика",
+            "экономика", "инвестиции", "криптовалюты", "математика", "физика", "астрономия", "космос", "биология",
+            "медицина", "экология", "волонтёрство", "языки", "английский", "японский", "немецкий", "учёба",
+            "университет", "наука", "карьера", "саморазвитие", "мода", "архитектура", "урбанистика", "автомобили",
+            "мотоциклы", "животные", "собаки", "кошки", "растения", "танцы", "стендап", "подкасты", "блогинг"
+    };
+
+    private static final String[] FACT_PARTS = {
+            "однажды", "побывал", "побывала", "в", "на", "Камчатке", "Байкале", "Эльбрусе", "Севере", "море",
+            "пробежал", "пробежала", "марафон", "выучил", "выучила", "язык", "за", "месяц", "умею", "жонглировать",
+            "готовить", "борщ", "пельмени", "играю", "на", "укулеле", "собираю", "виниловые", "пластинки",
+            "прыгал", "прыгала", "с", "парашютом", "вырастил", "вырастила", "лимон", "дома", "знаю", "наизусть",
+            "Онегина", "видел", "видела", "северное", "сияние", "написал", "написала", "книгу", "игру", "бота"
+    };
+
+    private SyntheticProfiles() {
+    }
+
+    public static UserInfo[] generate(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        UserInfo[] users = new UserInfo[count];
+        for (int i = 0; i < count; i++) {
+            UserInfo user = new UserInfo();
+            user.setId((long) i + 1);
+            user.setUserId(100_000_000L + i);
+            user.setName(NAMES[random.nextInt(NAMES.length)]);
+            user.setAge(String.valueOf(17 + random.nextInt(19)));
+            user.setDiscussionTopic(phrase(random, TOPICS, 2 + random.nextInt(6), ", "));
+            user.setFunFact(phrase(random, FACT_PARTS, 4 + random.nextInt(8), " "));
+            users[i] = user;
+        }
+        return users;
+    }
+
+    private static String phrase(SplittableRandom random, String[] vocabulary, int words, String separator) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(separator);
+            }
+            builder.append(vocabulary[skewedIndex(random, vocabulary.length)]);
+        }
+        return builder.toString();
+    }
+
+    // Квадрат равномерной величины смещает выбор к началу словаря
+    private static int skewedIndex(SplittableRandom random, int size) {
+        double u = random.nextDouble();
+        return (int) (u * u * size);
+    }
+}
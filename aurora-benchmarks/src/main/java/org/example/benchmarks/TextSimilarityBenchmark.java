@@ -0,0 +1,40 @@
+package org.example.benchmarks;
+
+import org.example.models.projections.MatchingProfile;
+import org.example.modules.profile_matching.TextSimilarity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный цикл оценки сходства анкет: индексация, поиск для каждой анкеты, сортировка и добор пар.
+ * Объём памяти растёт квадратично от числа анкет, поэтому по умолчанию размеры ограничены 5000;
+ * большие значения задаются через {@code -p userCount=...} и требуют соответствующего {@code -Xmx}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+public class TextSimilarityBenchmark {
+
+    @Param({"1000", "2500", "5000"})
+    public int userCount;
+
+    private MatchingProfile[] users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        users = Arrays.stream(SyntheticProfiles.generate(userCount, 42L))
+                .map(MatchingProfile::of)
+                .toArray(MatchingProfile[]::new);
+    }
+
+    @Benchmark
+    public List<TextSimilarity.SimilarityPair> processUserInfos() throws Exception {
+        return TextSimilarity.processUserInfos(users);
+    }
+}
@@ -1,8 +1,14 @@
 package org.example;
 
 import lombok.Getter;
+import org.example.annotations.AdminOnly;
 import org.example.callbacks.AcceptedCallbackHandler;
+import org.example.callbacks.AdminGuardedCallback;
+import org.example.callbacks.FindPageCallbackHandler;
 import org.example.callbacks.StartCallbackHandler;
+import org.example.callbacks.SupportClaimCallbackHandler;
+import org.example.callbacks.SupportCloseCallbackHandler;
+import org.example.callbacks.SupportInboxCallbackHandler;
 import org.example.callbacks.ToggleVisibilityCallbackHandler;
 import org.example.commands.*;
 import org.example.dialogs.BroadcastDialogHandler;
@@ -13,15 +19,32 @@ import org.example.interfaces.BotCommandHandler;
 import org.example.enums.DialogMode;
 import org.example.interfaces.CallbackQueryHandler;
 import org.example.interfaces.DialogHandler;
+import org.example.interfaces.TelegramApiCall;
+import org.example.messaging.ProfileCardSender;
+import org.example.messaging.Templates;
+import org.example.metrics.BotMetrics;
+import org.example.metrics.HandlerInvocationEvent;
 import org.example.models.UserInfo;
-import org.example.modules.profile_matching.ProfileMatchingResultService;
+import org.example.modules.activity.ActivityEventType;
+import org.example.modules.activity.ActivityLog;
+import org.example.modules.outbox.OutboxService;
 import org.example.modules.profile_matching.ProfileMatchingTask;
-import org.example.modules.statistics.ProfileStatisticsRepository;
+import org.example.modules.profile_matching.RematchService;
+import org.example.modules.search.SearchIndex;
+import org.example.modules.search.SearchView;
+import org.example.modules.statistics.ProfileCounters;
+import org.example.modules.statistics.ProfileStatisticsReport;
+import org.example.modules.support_inbox.SupportInboxView;
+import org.example.services.AdminRegistry;
+import org.example.services.BlockedChatRegistry;
+import org.example.services.FloodLimiter;
+import org.example.services.ProfileCardCache;
 import org.example.services.SupportRequestService;
 import org.example.services.UserInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
 import org.telegram.telegrambots.meta.api.methods.commands.SetMyCommands;
@@ -31,6 +54,7 @@ import org.telegram.telegrambots.meta.api.objects.commands.scope.BotCommandScope
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -54,10 +78,24 @@ public class AuroraBot extends MultiSessionTelegramBot implements CommandLineRun
     @Getter
     private final ConcurrentHashMap<Long, Integer> userQuestionCounts = new ConcurrentHashMap<>();
 
+    @Getter
+    private final ProfileCardSender profileCardSender = new ProfileCardSender(this);
+
     private final UserInfoService userInfoService;
     private final SupportRequestService supportRequestService;
-    private final ProfileMatchingResultService resultService;
-    private final ProfileStatisticsRepository profileStatisticsRepository;
+    private final ProfileMatchingTask profileMatchingTask;
+    private final RematchService rematchService;
+    private final ProfileStatisticsReport profileStatisticsReport;
+    private final AdminRegistry adminRegistry;
+    private final BlockedChatRegistry blockedChatRegistry;
+    private final ProfileCounters profileCounters;
+    private final ActivityLog activityLog;
+    private final BotMetrics botMetrics;
+    private final FloodLimiter floodLimiter;
+    private final OutboxService outboxService;
+    private final ProfileCardCache profileCardCache;
+    private final SupportInboxView supportInboxView;
+    private final SearchView searchView;
 
     @Value("${telegram.bot.name}")
     private String botName;
@@ -66,16 +104,29 @@ public class AuroraBot extends MultiSessionTelegramBot implements CommandLineRun
     private String botToken;
 
     @Autowired
-    public AuroraBot(UserInfoService userInfoService, SupportRequestService supportRequestService, ProfileMatchingResultService resultService, ProfileStatisticsRepository profileStatisticsRepository) {
+    public AuroraBot(UserInfoService userInfoService, SupportRequestService supportRequestService, @Lazy ProfileMatchingTask profileMatchingTask, @Lazy RematchService rematchService, ProfileStatisticsReport profileStatisticsReport, AdminRegistry adminRegistry, BlockedChatRegistry blockedChatRegistry, ProfileCounters profileCounters, ActivityLog activityLog, BotMetrics botMetrics, FloodLimiter floodLimiter, SearchIndex searchIndex, OutboxService outboxService, ProfileCardCache profileCardCache) {
         this.userInfoService = userInfoService;
         this.supportRequestService = supportRequestService;
-        this.resultService = resultService;
-        this.profileStatisticsRepository = profileStatisticsRepository;
+        this.profileMatchingTask = profileMatchingTask;
+        this.rematchService = rematchService;
+        this.profileStatisticsReport = profileStatisticsReport;
+        this.adminRegistry = adminRegistry;
+        this.blockedChatRegistry = blockedChatRegistry;
+        this.profileCounters = profileCounters;
+        this.activityLog = activityLog;
+        this.botMetrics = botMetrics;
+        this.floodLimiter = floodLimiter;
+        this.outboxService = outboxService;
+        this.profileCardCache = profileCardCache;
+        this.supportInboxView = new SupportInboxView(supportRequestService);
+        this.searchView = new SearchView(searchIndex);
     }
 
     @PostConstruct
     private void initializeBot() {
+        Templates.initialize();
         initialize(botName, botToken);
+        botMetrics.bindProfileCardSender(profileCardSender);
     }
 
     @Override
@@ -92,28 +143,51 @@ public class AuroraBot extends MultiSessionTelegramBot implements CommandLineRun
     }
 
     private void registerCommands() {
-        commandHandlers.put("/start", new StartCommand(this));
-        commandHandlers.put("/profile", new ProfileCommand(this, userInfoService));
-        commandHandlers.put("/help", new HelpCommand(this));
-        commandHandlers.put("/support", new SupportCommand(this, supportRequestService));
-        commandHandlers.put("/admin", new AdminCommand(this, userInfoService));
-        commandHandlers.put("/list_admins", new AdminsListCommand(this, userInfoService));
-        commandHandlers.put("/promote", new PromoteCommand(this, userInfoService));
-        commandHandlers.put("/match", new MatchCommand(this, new ProfileMatchingTask(userInfoService, resultService, this), userInfoService));
-        commandHandlers.put("/profile_stats", new ProfileStatsCommand(this, profileStatisticsRepository));
-        commandHandlers.put("/broadcast", new BroadcastCommand(this, userInfoService));
+        registerCommand("/start", new StartCommand(this));
+        registerCommand("/profile", new ProfileCommand(this, userInfoService, profileCardCache));
+        registerCommand("/help", new HelpCommand(this));
+        registerCommand("/support", new SupportCommand(this, floodLimiter));
+        registerCommand("/new_partner", new NewPartnerCommand(this, rematchService));
+        registerCommand("/admin", new AdminCommand(this));
+        registerCommand("/list_admins", new AdminsListCommand(this, userInfoService, adminRegistry));
+        registerCommand("/promote", new PromoteCommand(this));
+        registerCommand("/match", new MatchCommand(this, profileMatchingTask));
+        registerCommand("/match_preview", new MatchPreviewCommand(this, profileMatchingTask));
+        registerCommand("/profile_stats", new ProfileStatsCommand(this, profileStatisticsReport, profileCounters));
+        registerCommand("/support_inbox", new SupportInboxCommand(this, supportInboxView));
+        registerCommand("/find", new FindCommand(this, searchView));
+        registerCommand("/broadcast", new BroadcastCommand(this));
+    }
+
+    private void registerCommand(String command, BotCommandHandler handler) {
+        if (handler.getClass().isAnnotationPresent(AdminOnly.class)) {
+            handler = new AdminGuardedCommand(this, adminRegistry, handler);
+        }
+        commandHandlers.put(command, handler);
     }
 
     private void registerCallbackHandlers() {
-        callbackHandlers.put("start", new StartCallbackHandler(this));
-        callbackHandlers.put("accepted", new AcceptedCallbackHandler(this, userInfoService));
-        callbackHandlers.put("toggle_visibility", new ToggleVisibilityCallbackHandler(this, userInfoService));
+        registerCallbackHandler("start", new StartCallbackHandler(this));
+        registerCallbackHandler("accepted", new AcceptedCallbackHandler(this, userInfoService));
+        registerCallbackHandler("toggle_visibility", new ToggleVisibilityCallbackHandler(this, userInfoService, profileCardCache));
+        registerCallbackHandler(SupportInboxView.PAGE_CALLBACK, new SupportInboxCallbackHandler(this, supportInboxView));
+        registerCallbackHandler(SupportInboxView.CLAIM_CALLBACK, new SupportClaimCallbackHandler(this, supportRequestService, supportInboxView));
+        registerCallbackHandler(SupportInboxView.CLOSE_CALLBACK, new SupportCloseCallbackHandler(this, supportRequestService, supportInboxView));
+        registerCallbackHandler(SearchView.PAGE_CALLBACK, new FindPageCallbackHandler(this, searchView));
+    }
+
+    private void registerCallbackHandler(String key, CallbackQueryHandler handler) {
+        if (handler.getClass().isAnnotationPresent(AdminOnly.class)) {
+            handler = new AdminGuardedCallback(this, adminRegistry, handler);
+        }
+        callbackHandlers.put(key, handler);
     }
 
     private void setMyCommands() {
         List<BotCommand> commands = List.of(
                 new BotCommand("/start", "Заполнить анкету заново"),
                 new BotCommand("/profile", "Моя анкета"),
+                new BotCommand("/new_partner", "Подобрать нового собеседника"),
                 new BotCommand("/help", "Помощь")
         );
 
@@ -124,61 +198,174 @@ public class AuroraBot extends MultiSessionTelegramBot implements CommandLineRun
         }
     }
 
+    @Override
+    protected boolean isDeliverySuppressed(Long userId) {
+        return blockedChatRegistry.isBlocked(userId);
+    }
+
+    @Override
+    protected <T> T observeApiCall(String method, TelegramApiCall<T> call) throws TelegramApiException {
+        return botMetrics.observeApiCall(method, call);
+    }
+
+    @Override
+    protected void onDelivered(Long userId, String method) {
+        activityLog.record(userId, ActivityEventType.SEND_OK, method);
+    }
+
+    @Override
+    protected void onDeliveryFailed(Long userId, String method, Exception error) {
+        activityLog.record(userId, ActivityEventType.SEND_FAILED, method);
+        blockedChatRegistry.onDeliveryFailed(userId, error);
+    }
+
     @Override
     public void onUpdateEventReceived(Update update) {
+        long receivedAt = System.nanoTime();
         Long userId = getUserId(update);
+        blockedChatRegistry.onUserActive(userId);
+        profileCardCache.onUsernameSeen(userId, getUserName(update));
         String message = getMessageText(userId);
         String callbackData = getCallbackQueryButtonKey(userId);
 
+        // Флуд отсекается до любых обращений к базе и Telegram API
+        String floodKey = floodKey(userId, message, callbackData);
+        if (!floodLimiter.tryAcquire(userId, FloodLimiter.ANY_UPDATE) || !floodLimiter.tryAcquire(userId, floodKey)) {
+            botMetrics.updateRejected(floodKey.substring(0, floodKey.indexOf(':')));
+            logger.fine("Update rejected by flood limiter for userId: " + userId + ", key: " + floodKey);
+            if (update.hasCallbackQuery()) {
+                // Без ответа клиент продолжает показывать индикатор загрузки на кнопке
+                acknowledge(update.getCallbackQuery().getId(), "rejected", floodRejectionText(userId, floodKey), receivedAt);
+            }
+            return;
+        }
+
+        HandlerInvocationEvent event = new HandlerInvocationEvent();
+        event.begin();
+        long start = botMetrics.updateStarted();
+        String type = "other";
+        String name = "none";
+        boolean failed = true;
+        try {
+            if (message != null && message.startsWith("/")) {
+                type = "command";
+                name = handleCommand(userId, message);
+            } else if (callbackData != null && !callbackData.isEmpty()) {
+                type = "callback";
+                name = handleCallbackQuery(userId, callbackData, update, receivedAt);
+            } else if (message != null && !message.isEmpty()) {
+                type = "dialog";
+                name = handleDialogMode(userId, message);
+            }
+            failed = false;
+        } finally {
+            botMetrics.updateFinished(type, name, start, failed);
+            event.type = type;
+            event.name = name;
+            event.userHash = HandlerInvocationEvent.userHash(userId);
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    private String floodKey(Long userId, String message, String callbackData) {
         if (message != null && message.startsWith("/")) {
-            handleCommand(userId, message);
+            return "command:" + message.trim().split("\\s+", 2)[0];
         } else if (callbackData != null && !callbackData.isEmpty()) {
-            handleCallbackQuery(userId, callbackData, update);
-        } else if (message != null && !message.isEmpty()) {
-            handleDialogMode(userId, message);
+            return "callback:" + callbackKey(callbackData);
         }
+        DialogMode mode = userModes.get(userId);
+        return "dialog:" + (mode != null ? mode.name() : "none");
     }
 
-    private void handleCommand(Long userId, String command) {
+    // Возвращает имя команды для метрик: зарегистрированная команда или "unknown"
+    private String handleCommand(Long userId, String message) {
+        String[] parts = message.trim().split("\\s+", 2);
+        String command = parts[0];
+        String args = parts.length > 1 ? parts[1] : "";
+
         BotCommandHandler handler = commandHandlers.get(command);
+        String name = handler != null ? command : "unknown";
+        activityLog.record(userId, ActivityEventType.COMMAND, name);
         if (handler != null) {
-            handler.handle(userId);
+            handler.handle(userId, args);
         } else {
             sendTextMessage(userId, "Неизвестная команда. Попробуйте /start.");
         }
+        return name;
     }
 
-    private void handleCallbackQuery(Long userId, String callbackData, Update update) {
+    // Данные кнопки: "key" или "key:arg", например "support_claim:42"
+    private static String callbackKey(String callbackData) {
+        int separator = callbackData.indexOf(':');
+        return separator < 0 ? callbackData : callbackData.substring(0, separator);
+    }
+
+    private String handleCallbackQuery(Long userId, String callbackData, Update update, long receivedAt) {
         Integer messageId = update.getCallbackQuery().getMessage().getMessageId();
-        CallbackQueryHandler handler = callbackHandlers.get(callbackData);
-        if (handler != null) {
-            handler.handle(userId, messageId);
-        } else {
+        String key = callbackKey(callbackData);
+        CallbackQueryHandler handler = callbackHandlers.get(key);
+        String name = handler != null ? key : "unknown";
+        acknowledge(update.getCallbackQuery().getId(), name, handler != null ? handler.ackText(userId) : null, receivedAt);
+        activityLog.record(userId, ActivityEventType.CALLBACK, name);
+        if (handler == null) {
             sendTextMessage(userId, "Неизвестная команда. Попробуйте /start.");
+        } else if (key.length() < callbackData.length()) {
+            handler.handle(userId, messageId, callbackData.substring(key.length() + 1));
+        } else {
+            handler.handle(userId, messageId);
+        }
+        return name;
+    }
+
+    private String floodRejectionText(Long userId, String floodKey) {
+        Duration retryAfter = floodLimiter.retryAfter(userId, FloodLimiter.ANY_UPDATE);
+        Duration keyRetryAfter = floodLimiter.retryAfter(userId, floodKey);
+        if (keyRetryAfter.compareTo(retryAfter) > 0) {
+            retryAfter = keyRetryAfter;
         }
+        long secondsLeft = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return String.format("Слишком много нажатий. Повторите через %d с.", secondsLeft);
     }
 
-    private void handleDialogMode(Long userId, String message) {
+    // Ответ на нажатие отправляется сразу и асинхронно: индикатор загрузки у пользователя пропадает,
+    // не дожидаясь запросов к базе и редактирования сообщения в обработчике
+    private void acknowledge(String callbackQueryId, String name, String text, long receivedAt) {
+        answerCallbackQueryAsync(callbackQueryId, text).whenComplete((answered, error) -> {
+            botMetrics.callbackAcknowledged(name, receivedAt, error != null);
+            if (error != null) {
+                logger.warning("Failed to answer callback query " + name + ": " + error.getMessage());
+            }
+        });
+    }
+
+    private String handleDialogMode(Long userId, String message) {
         DialogMode currentMode = userModes.getOrDefault(userId, null);
         if (currentMode == null) {
             sendTextMessage(userId, "Пожалуйста, начните с команды /start.");
-            return;
+            return "none";
         }
 
         DialogHandler handler = getDialogHandler(currentMode);
         if (handler != null) {
+            activityLog.record(userId, ActivityEventType.DIALOG_STEP, currentMode.name());
             handler.handle(userId, message);
+            // Обработчик снимает режим, когда диалог завершён
+            if (userModes.get(userId) != currentMode) {
+                activityLog.record(userId, ActivityEventType.DIALOG_COMPLETED, currentMode.name());
+            }
         } else {
             sendTextMessage(userId, "Неизвестный режим диалога.");
         }
+        return currentMode.name();
     }
 
     private DialogHandler getDialogHandler(DialogMode mode) {
         return switch (mode) {
-            case PROFILE -> new ProfileDialogHandler(this, userInfoService);
-            case SUPPORT -> new SupportDialogHandler(this, supportRequestService);
+            case PROFILE -> new ProfileDialogHandler(this, userInfoService, profileCardCache);
+            case SUPPORT -> new SupportDialogHandler(this, supportRequestService, floodLimiter);
             case PROMOTE -> new PromoteUserDialogHandler(this, userInfoService);
-            case BROADCAST -> new BroadcastDialogHandler(this, userInfoService);
+            case BROADCAST -> new BroadcastDialogHandler(this, userInfoService, outboxService);
         };
     }
 }
@@ -1,27 +1,34 @@
 package org.example;
 
 import lombok.NoArgsConstructor;
+import org.example.interfaces.TelegramApiCall;
+import org.example.messaging.Keyboard;
+import org.example.metrics.TelegramApiCallEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
 import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.GetUserProfilePhotos;
 import org.telegram.telegrambots.meta.api.methods.ParseMode;
 import org.telegram.telegrambots.meta.api.methods.groupadministration.GetChat;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.send.SendPhoto;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageCaption;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
 import org.telegram.telegrambots.meta.api.objects.*;
-import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
-import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 @NoArgsConstructor
 public class MultiSessionTelegramBot extends TelegramLongPollingBot {
@@ -29,6 +36,8 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
     private String name;
     private String token;
     private final ConcurrentHashMap<Long, Update> userUpdates = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, String> messageResources = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, byte[]> imageResources = new ConcurrentHashMap<>();
     private final Logger logger = LoggerFactory.getLogger(MultiSessionTelegramBot.class);
 
     /**
@@ -87,6 +96,78 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
         // do nothing
     }
 
+    /**
+     * Checks whether messages to the user should be skipped without calling the API,
+     * e.g. because the user has blocked the bot. Can be overridden for custom behavior.
+     *
+     * @param userId the user ID
+     * @return true if the message must not be sent
+     */
+    protected boolean isDeliverySuppressed(Long userId) {
+        return false;
+    }
+
+    /**
+     * Called after a message has been sent to a user. Can be overridden for custom behavior.
+     *
+     * @param userId the user ID
+     * @param method the Telegram API method used, e.g. sendMessage
+     */
+    protected void onDelivered(Long userId, String method) {
+        // do nothing
+    }
+
+    /**
+     * Called when sending a message to a user fails. Can be overridden for custom behavior.
+     *
+     * @param userId the user ID
+     * @param method the Telegram API method used, e.g. sendMessage
+     * @param error  the exception thrown by the API call
+     */
+    protected void onDeliveryFailed(Long userId, String method, Exception error) {
+        // do nothing
+    }
+
+    /**
+     * Executes a Telegram API call. Can be overridden to measure or trace calls.
+     *
+     * @param method the API method name, e.g. SendMessage
+     * @param call   the call to execute
+     * @param <T>    the type of the call result
+     * @return the call result
+     */
+    protected <T> T observeApiCall(String method, TelegramApiCall<T> call) throws TelegramApiException {
+        return call.execute();
+    }
+
+    private <T> T callApi(String method, TelegramApiCall<T> call) throws TelegramApiException {
+        TelegramApiCallEvent event = new TelegramApiCallEvent();
+        event.begin();
+        event.method = method;
+        try {
+            T result = observeApiCall(method, call);
+            event.succeeded = true;
+            return result;
+        } catch (TelegramApiException | RuntimeException e) {
+            event.error = e.getMessage();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private boolean isSendable(Long userId) {
+        if (userId == null) {
+            logger.warn("Message not sent: userId is null.");
+            return false;
+        }
+        if (isDeliverySuppressed(userId)) {
+            logger.debug("Message not sent: delivery to user {} is suppressed.", userId);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Retrieves the callback query button key for a specific user.
      *
@@ -98,6 +179,35 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
         return update.hasCallbackQuery() ? update.getCallbackQuery().getData() : "";
     }
 
+    /**
+     * Answers a callback query without waiting for the response, so the client stops showing
+     * the loading indicator while the handler is still working. The call runs on the sender's
+     * executor and is observed like any other API call.
+     *
+     * @param callbackQueryId the callback query ID
+     * @param text            the notification text or null for none
+     * @return a future completed when Telegram acknowledges the answer
+     */
+    public CompletableFuture<Boolean> answerCallbackQueryAsync(String callbackQueryId, String text) {
+        AnswerCallbackQuery answer = new AnswerCallbackQuery();
+        answer.setCallbackQueryId(callbackQueryId);
+        answer.setText(text);
+
+        CompletableFuture<Boolean> answered = new CompletableFuture<>();
+        try {
+            exe.execute(() -> {
+                try {
+                    answered.complete(callApi("AnswerCallbackQuery", () -> super.sendApiMethod(answer)));
+                } catch (TelegramApiException | RuntimeException e) {
+                    answered.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            answered.completeExceptionally(e);
+        }
+        return answered;
+    }
+
     /**
      * Sends a text message to a user.
      *
@@ -105,8 +215,7 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
      * @param text   the text message
      */
     public boolean sendTextMessage(Long userId, String text) {
-        if (userId == null) {
-            logger.warn("Message not sent: userId is null.");
+        if (!isSendable(userId)) {
             return false;
         }
 
@@ -115,9 +224,11 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
 
         try {
             executeTelegramApiMethod(command);
+            onDelivered(userId, "sendMessage");
             return true;
         } catch (Exception e) {
             logger.error("Failed to send text message. UserId: {}, Error: {}", userId, e.getMessage());
+            onDeliveryFailed(userId, "sendMessage", e);
             return false;
         }
     }
@@ -129,8 +240,7 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
      * @param photoKey the photo key or file ID
      */
     public boolean sendPhotoMessage(Long userId, String photoKey) {
-        if (userId == null) {
-            logger.warn("Message not sent: userId is null.");
+        if (!isSendable(userId)) {
             return false;
         }
 
@@ -141,9 +251,57 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
 
         try {
             executeTelegramApiMethod(photoMessage);
+            onDelivered(userId, "sendPhoto");
             return true;
         } catch (Exception e) {
             logger.error("Failed to send photo message. UserId: {}, Error: {}", userId, e.getMessage());
+            onDeliveryFailed(userId, "sendPhoto", e);
+            return false;
+        }
+    }
+
+    /**
+     * Sends a photo with an HTML caption and optional inline buttons to a user.
+     *
+     * @param userId   the user ID
+     * @param photoKey the photo key or file ID
+     * @param caption  the caption text
+     * @param buttons  an array of button names and callback data
+     * @return boolean status of message sending (true if successful, false if failed)
+     */
+    public boolean sendPhotoCaptionMessage(Long userId, String photoKey, String caption, String... buttons) {
+        return sendPhotoCaptionMessage(userId, photoKey, caption, Keyboard.of(buttons));
+    }
+
+    /**
+     * Sends a photo with an HTML caption and a prebuilt inline keyboard to a user.
+     *
+     * @param userId   the user ID
+     * @param photoKey the photo key or file ID
+     * @param caption  the caption text
+     * @param keyboard the inline keyboard, {@link Keyboard#NONE} for none
+     * @return boolean status of message sending (true if successful, false if failed)
+     */
+    public boolean sendPhotoCaptionMessage(Long userId, String photoKey, String caption, Keyboard keyboard) {
+        if (!isSendable(userId)) {
+            return false;
+        }
+
+        SendPhoto photoMessage = new SendPhoto();
+        photoMessage.setPhoto(new InputFile(photoKey));
+        photoMessage.setCaption(caption);
+        photoMessage.setParseMode(ParseMode.HTML);
+        photoMessage.setChatId(userId);
+        if (!keyboard.isEmpty())
+            photoMessage.setReplyMarkup(keyboard.toMarkup());
+
+        try {
+            executeTelegramApiMethod(photoMessage);
+            onDelivered(userId, "sendPhoto");
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to send photo caption message. UserId: {}, Error: {}", userId, e.getMessage());
+            onDeliveryFailed(userId, "sendPhoto", e);
             return false;
         }
     }
@@ -157,81 +315,71 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
      * @return boolean status of message sending (true if successful, false if failed)
      */
     public boolean sendTextButtonsMessage(Long userId, String text, String... buttons) {
+        return sendTextButtonsMessage(userId, text, Keyboard.of(buttons));
+    }
+
+    /**
+     * Sends a text message with a prebuilt inline keyboard to a user.
+     *
+     * @param keyboard the inline keyboard, {@link Keyboard#NONE} for none
+     * @return boolean status of message sending (true if successful, false if failed)
+     */
+    public boolean sendTextButtonsMessage(Long userId, String text, Keyboard keyboard) {
+        if (!isSendable(userId)) {
+            return false;
+        }
+
         SendMessage command = createApiSendMessageCommandWithChat(userId, text);
         command.setParseMode(ParseMode.HTML);
-        if (buttons.length > 0)
-            attachButtons(command, List.of(buttons));
+        if (!keyboard.isEmpty())
+            command.setReplyMarkup(keyboard.toMarkup());
 
         try {
             executeTelegramApiMethod(command);
+            onDelivered(userId, "sendMessage");
             return true;
         } catch (TelegramApiException e) {
             logger.error("Failed to send text buttons message. UserId: {}, Error: {}", userId, e.getMessage());
+            onDeliveryFailed(userId, "sendMessage", e);
             return false;
         }
     }
 
 
     /**
-     * Attaches inline buttons to a message.
-     *
-     * @param message the message object
-     * @param buttons a list of button names and callback data
-     * @param <T>     the type of the message object
-     */
-    private <T> void attachButtons(T message, List<String> buttons) {
-        InlineKeyboardMarkup markup = new InlineKeyboardMarkup();
-        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-
-        for (int i = 0; i < buttons.size(); i += 2) {
-            String buttonName = buttons.get(i);
-            String buttonValue = buttons.get(i + 1);
-
-            InlineKeyboardButton button = new InlineKeyboardButton();
-            button.setText(buttonName);
-            button.setCallbackData(buttonValue);
-
-            keyboard.add(List.of(button));
-        }
-
-        markup.setKeyboard(keyboard);
-
-        if (message instanceof SendMessage) {
-            ((SendMessage) message).setReplyMarkup(markup);
-        } else if (message instanceof EditMessageText) {
-            ((EditMessageText) message).setReplyMarkup(markup);
-        } else {
-            throw new IllegalArgumentException("Unsupported message type");
-        }
-    }
-
-    /**
-     * Loads a message text from a file.
+     * Loads a message text from {@code messages/<name>.txt} on the classpath. The file is read once
+     * and cached; a single trailing line break is dropped so files may end with a newline.
      *
      * @param name the name of the message file
      * @return the message text
      */
     public static String loadMessage(String name) {
-        try {
-            var is = ClassLoader.getSystemResourceAsStream("messages/" + name + ".txt");
-            assert is != null;
-            return new String(is.readAllBytes());
-        } catch (IOException e) {
-            throw new RuntimeException("Can't load message!");
-        }
+        return messageResources.computeIfAbsent(name, key -> {
+            String text = new String(readResource("messages/" + key + ".txt"), StandardCharsets.UTF_8);
+            return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+        });
     }
 
     /**
-     * Loads an image from a file.
+     * Loads an image from {@code images/<name>.jpg} on the classpath. The bytes are read once and cached;
+     * every call returns a new stream over them.
      *
      * @param name the name of the image file
      * @return the input stream of the image
      */
     public static InputStream loadImage(String name) {
-        try {
-            return ClassLoader.getSystemResourceAsStream("images/" + name + ".jpg");
-        } catch (Exception e) {
-            throw new RuntimeException("Can't load photo!");
+        return new ByteArrayInputStream(imageResources.computeIfAbsent(name, key -> readResource("images/" + key + ".jpg")));
+    }
+
+    // The application class loader is used because the system one cannot see resources inside a Spring Boot jar
+    private static byte[] readResource(String path) {
+        try (InputStream is = MultiSessionTelegramBot.class.getClassLoader().getResourceAsStream(path)) {
+            if (is == null) {
+                throw new IllegalArgumentException("Resource not found: " + path);
+            }
+            return is.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't load resource " + path, e);
         }
     }
 
@@ -253,6 +401,24 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
         return null;
     }
 
+    /**
+     * Retrieves the sender's Telegram username from an update without an API call.
+     *
+     * @param update the update object
+     * @return the username without "@" or null if the sender has none
+     */
+    public String getUserName(Update update) {
+        if (update.hasMessage() && update.getMessage().getFrom() != null) {
+            return update.getMessage().getFrom().getUserName();
+        }
+
+        if (update.hasCallbackQuery() && update.getCallbackQuery().getFrom() != null) {
+            return update.getCallbackQuery().getFrom().getUserName();
+        }
+
+        return null;
+    }
+
     /**
      * Retrieves the user alias from Telegram chat information.
      *
@@ -264,7 +430,7 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
         getChat.setChatId(userId.toString());
 
         try {
-            Chat chat = execute(getChat);
+            Chat chat = callApi("GetChat", () -> execute(getChat));
             return chat.getUserName() != null ? "@" + chat.getUserName() : null;
         } catch (TelegramApiException e) {
             e.printStackTrace();
@@ -283,7 +449,7 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
             GetUserProfilePhotos getUserProfilePhotos = new GetUserProfilePhotos();
             getUserProfilePhotos.setUserId(userId);
 
-            UserProfilePhotos photos = execute(getUserProfilePhotos);
+            UserProfilePhotos photos = callApi("GetUserProfilePhotos", () -> execute(getUserProfilePhotos));
             if (photos.getTotalCount() > 0 && !photos.getPhotos().isEmpty()) {
                 List<PhotoSize> photoSizes = photos.getPhotos().get(0);
                 if (!photoSizes.isEmpty()) {
@@ -322,13 +488,23 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
      * @return boolean status of message editing (true if successful, false if failed)
      */
     public boolean editTextMessageWithButtons(Long userId, Integer messageId, String newText, String... buttons) {
+        return editTextMessageWithButtons(userId, messageId, newText, Keyboard.of(buttons));
+    }
+
+    /**
+     * Edits a text message and replaces its inline keyboard with a prebuilt one.
+     *
+     * @param keyboard the inline keyboard, {@link Keyboard#NONE} for none
+     * @return boolean status of message editing (true if successful, false if failed)
+     */
+    public boolean editTextMessageWithButtons(Long userId, Integer messageId, String newText, Keyboard keyboard) {
         EditMessageText editMessage = new EditMessageText();
         editMessage.setChatId(userId);
         editMessage.setMessageId(messageId);
         editMessage.setText(newText);
         editMessage.setParseMode(ParseMode.HTML);
-        if (buttons.length > 0)
-            attachButtons(editMessage, List.of(buttons));
+        if (!keyboard.isEmpty())
+            editMessage.setReplyMarkup(keyboard.toMarkup());
 
         try {
             executeTelegramApiMethod(editMessage);
@@ -339,6 +515,60 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
         }
     }
 
+    /**
+     * Edits the caption of an existing photo message and replaces its inline keyboard.
+     *
+     * @param userId    the user ID
+     * @param messageId the message ID to edit
+     * @param caption   the new HTML caption
+     * @param keyboard  the inline keyboard, {@link Keyboard#NONE} for none
+     * @return boolean status of message editing (true if successful, false if failed)
+     */
+    public boolean editPhotoCaptionWithButtons(Long userId, Integer messageId, String caption, Keyboard keyboard) {
+        EditMessageCaption editCaption = new EditMessageCaption();
+        editCaption.setChatId(userId);
+        editCaption.setMessageId(messageId);
+        editCaption.setCaption(caption);
+        editCaption.setParseMode(ParseMode.HTML);
+        if (!keyboard.isEmpty())
+            editCaption.setReplyMarkup(keyboard.toMarkup());
+
+        try {
+            executeTelegramApiMethod(editCaption);
+            return true;
+        } catch (TelegramApiException e) {
+            logger.error("Failed to edit photo caption with buttons. UserId: {}, MessageId: {}, Error: {}", userId, messageId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Edits the message whose button the user has just pressed: the caption if it is a photo message,
+     * the text otherwise. Telegram rejects EditMessageText for photo messages, so callbacks attached to
+     * cards that may be sent either way must use this method.
+     *
+     * @param userId    the user ID
+     * @param messageId the message ID to edit
+     * @param newText   the new HTML text or caption
+     * @param keyboard  the inline keyboard, {@link Keyboard#NONE} for none
+     * @return boolean status of message editing (true if successful, false if failed)
+     */
+    public boolean editMessageWithButtons(Long userId, Integer messageId, String newText, Keyboard keyboard) {
+        return isPhotoCallbackMessage(userId, messageId)
+                ? editPhotoCaptionWithButtons(userId, messageId, newText, keyboard)
+                : editTextMessageWithButtons(userId, messageId, newText, keyboard);
+    }
+
+    private boolean isPhotoCallbackMessage(Long userId, Integer messageId) {
+        Update update = userUpdates.get(userId);
+        if (update == null || !update.hasCallbackQuery()) {
+            return false;
+        }
+        return update.getCallbackQuery().getMessage() instanceof Message message
+                && message.getMessageId().equals(messageId)
+                && message.hasPhoto();
+    }
+
     /**
      * Creates a SendMessage command with chat ID and text.
      *
@@ -359,7 +589,7 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
      * @param message the SendPhoto object
      */
     private void executeTelegramApiMethod(SendPhoto message) throws TelegramApiException {
-        super.execute(message);
+        callApi("SendPhoto", () -> super.execute(message));
     }
 
     /**
@@ -370,6 +600,6 @@ public class MultiSessionTelegramBot extends TelegramLongPollingBot {
      * @param <Method> the type of the method
      */
     private <T extends Serializable, Method extends BotApiMethod<T>> void executeTelegramApiMethod(Method method) throws TelegramApiException {
-        super.sendApiMethod(method);
+        callApi(method.getClass().getSimpleName(), () -> super.sendApiMethod(method));
     }
 }
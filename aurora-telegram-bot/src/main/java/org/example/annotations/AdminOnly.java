@@ -0,0 +1,15 @@
+package org.example.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Помечает обработчик, доступный только администраторам.
+ * Проверка прав навешивается при регистрации обработчика в {@link org.example.AuroraBot}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AdminOnly {
+}
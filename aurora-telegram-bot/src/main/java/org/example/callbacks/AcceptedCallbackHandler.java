@@ -3,6 +3,7 @@ package org.example.callbacks;
 import org.example.AuroraBot;
 import org.example.enums.DialogMode;
 import org.example.interfaces.CallbackQueryHandler;
+import org.example.messaging.Keyboard;
 import org.example.models.UserInfo;
 import org.example.services.UserInfoService;
 
@@ -27,11 +28,12 @@ public class AcceptedCallbackHandler implements CallbackQueryHandler {
 
                 > День и время, формат встречи вы выбираете сами — свяжитесь с новым знакомым и договоритесь о встрече; если планы изменились, предупредите партнёра заранее.
 
-                > Если собеседник не отвечает, напишите в бот, и мы подберём вам нового собеседника.
+                > Если собеседник не отвечает, отправьте /new_partner, и мы подберём вам нового собеседника.
 
                 ➪ Принято 🫡""";
 
-        bot.editTextMessageWithButtons(userId, messageId, updatedMessage);
+        // Кнопка есть и под правилами, и под карточкой анкеты, которая может быть фото с подписью
+        bot.editMessageWithButtons(userId, messageId, updatedMessage, Keyboard.NONE);
 
         bot.getUserModes().put(userId, DialogMode.PROFILE);
         bot.getUserQuestionCounts().put(userId, 1);
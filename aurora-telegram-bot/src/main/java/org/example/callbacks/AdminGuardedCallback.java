@@ -0,0 +1,47 @@
+package org.example.callbacks;
+
+import org.example.AuroraBot;
+import org.example.interfaces.CallbackQueryHandler;
+import org.example.services.AdminRegistry;
+
+import java.util.logging.Logger;
+
+/**
+ * Оборачивает обработчик кнопки, помеченный {@link org.example.annotations.AdminOnly}:
+ * кнопку из пересланного или старого сообщения не сможет нажать пользователь без прав администратора.
+ */
+public class AdminGuardedCallback implements CallbackQueryHandler {
+    private static final Logger logger = Logger.getLogger(AdminGuardedCallback.class.getName());
+
+    private static final String NO_PERMISSION_MESSAGE = "У вас нет прав для выполнения этой команды.";
+
+    private final AuroraBot bot;
+    private final AdminRegistry adminRegistry;
+    private final CallbackQueryHandler delegate;
+
+    public AdminGuardedCallback(AuroraBot bot, AdminRegistry adminRegistry, CallbackQueryHandler delegate) {
+        this.bot = bot;
+        this.adminRegistry = adminRegistry;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handle(Long userId, Integer messageId) {
+        handle(userId, messageId, "");
+    }
+
+    @Override
+    public String ackText(Long userId) {
+        return adminRegistry.isAdmin(userId) ? delegate.ackText(userId) : null;
+    }
+
+    @Override
+    public void handle(Long userId, Integer messageId, String arg) {
+        if (adminRegistry.isAdmin(userId)) {
+            delegate.handle(userId, messageId, arg);
+        } else {
+            bot.sendTextMessage(userId, NO_PERMISSION_MESSAGE);
+            logger.warning("Admin callback " + delegate.getClass().getSimpleName() + " rejected for userId: " + userId);
+        }
+    }
+}
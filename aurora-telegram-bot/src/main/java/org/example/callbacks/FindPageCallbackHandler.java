@@ -0,0 +1,37 @@
+package org.example.callbacks;
+
+import org.example.AuroraBot;
+import org.example.annotations.AdminOnly;
+import org.example.interfaces.CallbackQueryHandler;
+import org.example.modules.search.SearchView;
+
+/**
+ * Листание результатов /find: {@code find:<номер страницы>}.
+ */
+@AdminOnly
+public class FindPageCallbackHandler implements CallbackQueryHandler {
+    private final AuroraBot bot;
+    private final SearchView searchView;
+
+    public FindPageCallbackHandler(AuroraBot bot, SearchView searchView) {
+        this.bot = bot;
+        this.searchView = searchView;
+    }
+
+    @Override
+    public void handle(Long userId, Integer messageId) {
+        handle(userId, messageId, "0");
+    }
+
+    @Override
+    public void handle(Long userId, Integer messageId, String arg) {
+        int page;
+        try {
+            page = Integer.parseInt(arg.trim());
+        } catch (NumberFormatException e) {
+            page = 0;
+        }
+        SearchView.Page result = searchView.renderPage(userId, page);
+        bot.editTextMessageWithButtons(userId, messageId, result.text(), result.buttons());
+    }
+}
@@ -2,6 +2,7 @@ package org.example.callbacks;
 
 import org.example.AuroraBot;
 import org.example.interfaces.CallbackQueryHandler;
+import org.example.messaging.Keyboard;
 
 import java.util.logging.Logger;
 
@@ -33,8 +34,8 @@ public class StartCallbackHandler implements CallbackQueryHandler {
 
                     > День и время, формат встречи вы выбираете сами — свяжитесь с новым знакомым и договоритесь о встрече; если планы изменились, предупредите партнёра заранее.
 
-                    > Если собеседник не отвечает, напишите в бот, и мы подберём вам нового собеседника.""";
-            bot.sendTextButtonsMessage(userId, infoMessage, "Принято 😊", "accepted");
+                    > Если собеседник не отвечает, отправьте /new_partner, и мы подберём вам нового собеседника.""";
+            bot.sendTextButtonsMessage(userId, infoMessage, Keyboard.ACCEPT_RULES);
 
             logger.info("Handled start callback for userId: " + userId);
         } catch (Exception e) {
@@ -0,0 +1,52 @@
+package org.example.callbacks;
+
+import org.example.AuroraBot;
+import org.example.annotations.AdminOnly;
+import org.example.interfaces.CallbackQueryHandler;
+import org.example.modules.support_inbox.SupportInboxView;
+import org.example.services.SupportRequestService;
+
+import java.util.logging.Logger;
+
+@AdminOnly
+public class SupportClaimCallbackHandler implements CallbackQueryHandler {
+    private static final Logger logger = Logger.getLogger(SupportClaimCallbackHandler.class.getName());
+
+    private final AuroraBot bot;
+    private final SupportRequestService supportRequestService;
+    private final SupportInboxView inboxView;
+
+    public SupportClaimCallbackHandler(AuroraBot bot, SupportRequestService supportRequestService, SupportInboxView inboxView) {
+        this.bot = bot;
+        this.supportRequestService = supportRequestService;
+        this.inboxView = inboxView;
+    }
+
+    @Override
+    public void handle(Long userId, Integer messageId) {
+        handle(userId, messageId, "");
+    }
+
+    @Override
+    public String ackText(Long userId) {
+        return "Берём обращение в работу…";
+    }
+
+    @Override
+    public void handle(Long userId, Integer messageId, String arg) {
+        Long requestId = SupportInboxView.parseId(arg);
+        if (requestId == null) {
+            logger.warning("Invalid support request id in claim callback: " + arg);
+            return;
+        }
+
+        if (supportRequestService.claim(requestId, userId)) {
+            logger.info("Support request " + requestId + " claimed by userId: " + userId);
+        } else {
+            bot.sendTextMessage(userId, String.format("Обращение #%d уже взято в работу или закрыто.", requestId));
+        }
+
+        SupportInboxView.Page page = inboxView.render(null);
+        bot.editTextMessageWithButtons(userId, messageId, page.text(), page.buttons());
+    }
+}
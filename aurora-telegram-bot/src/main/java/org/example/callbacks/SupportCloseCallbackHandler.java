@@ -0,0 +1,55 @@
+package org.example.callbacks;
+
+import org.example.AuroraBot;
+import org.example.annotations.AdminOnly;
+import org.example.interfaces.CallbackQueryHandler;
+import org.example.modules.support_inbox.SupportInboxView;
+import org.example.services.SupportRequestService;
+
+import java.util.logging.Logger;
+
+@AdminOnly
+public class SupportCloseCallbackHandler implements CallbackQueryHandler {
+    private static final Logger logger = Logger.getLogger(SupportCloseCallbackHandler.class.getName());
+
+    private final AuroraBot bot;
+    private final SupportRequestService supportRequestService;
+    private final SupportInboxView inboxView;
+
+    public SupportCloseCallbackHandler(AuroraBot bot, SupportRequestService supportRequestService, SupportInboxView inboxView) {
+        this.bot = bot;
+        this.supportRequestService = supportRequestService;
+        this.inboxView = inboxView;
+    }
+
+    @Override
+    public void handle(Long userId, Integer messageId) {
+        handle(userId, messageId, "");
+    }
+
+    @Override
+    public String ackText(Long userId) {
+        return "Закрываем обращение…";
+    }
+
+    @Override
+    public void handle(Long userId, Integer messageId, String arg) {
+        Long requestId = SupportInboxView.parseId(arg);
+        if (requestId == null) {
+            logger.warning("Invalid support request id in close callback: " + arg);
+            return;
+        }
+
+        if (supportRequestService.close(requestId, userId)) {
+            logger.info("Support request " + requestId + " closed by userId: " + userId);
+            supportRequestService.getSupportRequest(requestId).ifPresent(request ->
+                    bot.sendTextMessage(request.getUserId(), String.format(
+                            "Ваше обращение #%d закрыто. Если вопрос остался — напишите снова в /support 😉", requestId)));
+        } else {
+            bot.sendTextMessage(userId, String.format("Обращение #%d уже закрыто.", requestId));
+        }
+
+        SupportInboxView.Page page = inboxView.render(null);
+        bot.editTextMessageWithButtons(userId, messageId, page.text(), page.buttons());
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.callbacks;
+
+import org.example.AuroraBot;
+import org.example.annotations.AdminOnly;
+import org.example.interfaces.CallbackQueryHandler;
+import org.example.modules.support_inbox.SupportInboxView;
+
+/**
+ * Листание входящих: {@code support_inbox:<id>} — страница после обращения с этим id, без аргумента — первая страница.
+ */
+@AdminOnly
+public class SupportInboxCallbackHandler implements CallbackQueryHandler {
+    private final AuroraBot bot;
+    private final SupportInboxView inboxView;
+
+    public SupportInboxCallbackHandler(AuroraBot bot, SupportInboxView inboxView) {
+        this.bot = bot;
+        this.inboxView = inboxView;
+    }
+
+    @Override
+    public void handle(Long userId, Integer messageId) {
+        handle(userId, messageId, "");
+    }
+
+    @Override
+    public void handle(Long userId, Integer messageId, String arg) {
+        SupportInboxView.Page page = inboxView.render(SupportInboxView.parseId(arg));
+        bot.editTextMessageWithButtons(userId, messageId, page.text(), page.buttons());
+    }
+}
@@ -2,7 +2,10 @@ package org.example.callbacks;
 
 import org.example.AuroraBot;
 import org.example.interfaces.CallbackQueryHandler;
+import org.example.messaging.Keyboard;
+import org.example.messaging.Templates;
 import org.example.models.UserInfo;
+import org.example.services.ProfileCardCache;
 import org.example.services.UserInfoService;
 
 import java.util.logging.Logger;
@@ -11,26 +14,29 @@ public class ToggleVisibilityCallbackHandler implements CallbackQueryHandler {
     private static final Logger logger = Logger.getLogger(ToggleVisibilityCallbackHandler.class.getName());
     private final AuroraBot bot;
     private final UserInfoService userInfoService;
+    private final ProfileCardCache profileCardCache;
 
-    public ToggleVisibilityCallbackHandler(AuroraBot bot, UserInfoService userInfoService) {
+    public ToggleVisibilityCallbackHandler(AuroraBot bot, UserInfoService userInfoService, ProfileCardCache profileCardCache) {
         this.bot = bot;
         this.userInfoService = userInfoService;
+        this.profileCardCache = profileCardCache;
     }
 
     @Override
     public void handle(Long userId, Integer messageId) {
         try {
-            userInfoService.toggleVisibility(userId);
+            boolean visible = userInfoService.toggleVisibility(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
             UserInfo userInfo = userInfoService.getUserInfoByUserId(userId)
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            userInfo.setIsVisible(visible);
 
             String updatedMessage = formatUserProfileMessage(userId, userInfo);
-            bot.editTextMessageWithButtons(
+            bot.editMessageWithButtons(
                     userId,
                     messageId,
                     updatedMessage,
-                    "Редактировать", "accepted",
-                    "Сменить статус видимости", "toggle_visibility"
+                    Keyboard.PROFILE_ACTIONS
             );
 
             logger.info("Visibility toggled for userId: " + userId);
@@ -40,26 +46,6 @@ public class ToggleVisibilityCallbackHandler implements CallbackQueryHandler {
     }
 
     private String formatUserProfileMessage(Long userId, UserInfo userInfo) {
-        String contactInfo = getContactInfo(userId);
-        String visibilityStatus = getVisibilityStatus(userInfo);
-
-        return String.format(
-                "Вот так будет выглядеть ваш профиль в сообщении, которое мы пришлём вашему собеседнику:\n⏬\n%s%s",
-                userInfoService.formatUserProfile(userInfo, contactInfo),
-                visibilityStatus
-        );
-    }
-
-    private String getContactInfo(Long userId) {
-        String userAlias = bot.getUserAlias(userId);
-        return (userAlias != null && !userAlias.equals("@null"))
-                ? userAlias
-                : String.format("<a href=\"tg://user?id=%d\">Профиль пользователя</a>", userId);
-    }
-
-    private String getVisibilityStatus(UserInfo userInfo) {
-        return userInfo.getIsVisible()
-                ? "\n✅ Ваша анкета видна."
-                : "\n❌ На данный момент вашу анкету никто не видит.";
+        return Templates.profilePreview(profileCardCache.getCard(userInfo, bot::getUserAlias), userInfo.getIsVisible());
     }
 }
@@ -1,19 +1,19 @@
 package org.example.commands;
 
 import org.example.AuroraBot;
+import org.example.annotations.AdminOnly;
 import org.example.interfaces.BotCommandHandler;
-import org.example.models.UserInfo;
-import org.example.services.UserInfoService;
 
+@AdminOnly
 public class AdminCommand implements BotCommandHandler {
 
-    private static final String NO_PERMISSION_MESSAGE = "У вас нет прав для выполнения этой команды.";
     private static final String USER_COMMANDS = """
             Команды пользователя:
             - /start: Инициализация работы с ботом и начало взаимодействия.
             - /profile: Просмотр текущей анкеты пользователем.
             - /help: Получение справочной информации о функционале бота и доступных командах.
             - /support: Отправка запроса в техническую поддержку.
+            - /new_partner: Подбор нового собеседника, если текущий не отвечает (раз в неделю).
             """;
 
     private static final String ADMIN_COMMANDS = """
@@ -22,31 +22,21 @@ public class AdminCommand implements BotCommandHandler {
             - /list_admins: Вывести список всех администраторов.
             - /promote: Сделать пользователя администратором.
             - /match: Запустить процесс подбора профилей пользователей.
+            - /match_preview: Пробный подбор без рассылки с отчётом о времени фаз.
             - /profile_stats: Просмотреть статистику профилей за последние 7 дней.
+            - /support_inbox: Входящие обращения в поддержку: взять в работу и закрыть.
+            - /find: Поиск по анкетам и обращениям в поддержку.
             - /broadcast: Отправить сообщение всем пользователям.
             """;
 
     private final AuroraBot bot;
-    private final UserInfoService userInfoService;
 
-    public AdminCommand(AuroraBot bot, UserInfoService userInfoService) {
+    public AdminCommand(AuroraBot bot) {
         this.bot = bot;
-        this.userInfoService = userInfoService;
     }
 
     @Override
     public void handle(Long userId) {
-        userInfoService.getUserInfoByUserId(userId).ifPresentOrElse(
-                userInfo -> checkAdminAndSendCommands(userId, userInfo),
-                () -> bot.sendTextMessage(userId, NO_PERMISSION_MESSAGE)
-        );
-    }
-
-    private void checkAdminAndSendCommands(Long userId, UserInfo userInfo) {
-        if (userInfo.getRole() == UserInfo.Role.ADMIN) {
-            bot.sendTextMessage(userId, USER_COMMANDS + "\n" + ADMIN_COMMANDS);
-        } else {
-            bot.sendTextMessage(userId, NO_PERMISSION_MESSAGE);
-        }
+        bot.sendTextMessage(userId, USER_COMMANDS + "\n" + ADMIN_COMMANDS);
     }
 }
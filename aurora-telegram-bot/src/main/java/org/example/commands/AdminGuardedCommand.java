@@ -0,0 +1,42 @@
+package org.example.commands;
+
+import org.example.AuroraBot;
+import org.example.interfaces.BotCommandHandler;
+import org.example.services.AdminRegistry;
+
+import java.util.logging.Logger;
+
+/**
+ * Оборачивает команду, помеченную {@link org.example.annotations.AdminOnly}:
+ * пользователи без прав администратора получают отказ без обращения к базе данных.
+ */
+public class AdminGuardedCommand implements BotCommandHandler {
+    private static final Logger logger = Logger.getLogger(AdminGuardedCommand.class.getName());
+
+    private static final String NO_PERMISSION_MESSAGE = "У вас нет прав для выполнения этой команды.";
+
+    private final AuroraBot bot;
+    private final AdminRegistry adminRegistry;
+    private final BotCommandHandler delegate;
+
+    public AdminGuardedCommand(AuroraBot bot, AdminRegistry adminRegistry, BotCommandHandler delegate) {
+        this.bot = bot;
+        this.adminRegistry = adminRegistry;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handle(Long userId) {
+        handle(userId, "");
+    }
+
+    @Override
+    public void handle(Long userId, String args) {
+        if (adminRegistry.isAdmin(userId)) {
+            delegate.handle(userId, args);
+        } else {
+            bot.sendTextMessage(userId, NO_PERMISSION_MESSAGE);
+            logger.warning("Admin command " + delegate.getClass().getSimpleName() + " rejected for userId: " + userId);
+        }
+    }
+}
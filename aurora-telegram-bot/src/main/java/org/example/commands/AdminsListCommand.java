@@ -1,43 +1,33 @@
 package org.example.commands;
 
 import org.example.AuroraBot;
+import org.example.annotations.AdminOnly;
 import org.example.interfaces.BotCommandHandler;
 import org.example.models.UserInfo;
+import org.example.services.AdminRegistry;
 import org.example.services.UserInfoService;
 
 import java.util.List;
+import java.util.Optional;
 
+@AdminOnly
 public class AdminsListCommand implements BotCommandHandler {
 
-    private static final String NO_PERMISSION_MESSAGE = "У вас нет прав для выполнения этой команды.";
-
     private final AuroraBot bot;
     private final UserInfoService userInfoService;
+    private final AdminRegistry adminRegistry;
 
-    public AdminsListCommand(AuroraBot bot, UserInfoService userInfoService) {
+    public AdminsListCommand(AuroraBot bot, UserInfoService userInfoService, AdminRegistry adminRegistry) {
         this.bot = bot;
         this.userInfoService = userInfoService;
+        this.adminRegistry = adminRegistry;
     }
 
     @Override
     public void handle(Long userId) {
-        userInfoService.getUserInfoByUserId(userId).ifPresentOrElse(
-                userInfo -> checkAdminAndListAdmins(userId, userInfo),
-                () -> bot.sendTextMessage(userId, NO_PERMISSION_MESSAGE)
-        );
-    }
-
-    private void checkAdminAndListAdmins(Long userId, UserInfo userInfo) {
-        if (userInfo.getRole() == UserInfo.Role.ADMIN) {
-            sendAdminsList(userId);
-        } else {
-            bot.sendTextMessage(userId, NO_PERMISSION_MESSAGE);
-        }
-    }
-
-    private void sendAdminsList(Long userId) {
-        List<UserInfo> admins = userInfoService.getAllUsers().stream()
-                .filter(user -> user.getRole() == UserInfo.Role.ADMIN)
+        List<UserInfo> admins = adminRegistry.getAdminIds().stream()
+                .map(userInfoService::getUserInfoByUserId)
+                .flatMap(Optional::stream)
                 .toList();
 
         if (admins.isEmpty()) {
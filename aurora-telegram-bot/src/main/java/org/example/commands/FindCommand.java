@@ -0,0 +1,35 @@
+package org.example.commands;
+
+import org.example.AuroraBot;
+import org.example.annotations.AdminOnly;
+import org.example.interfaces.BotCommandHandler;
+import org.example.modules.search.SearchView;
+
+/**
+ * /find &lt;текст&gt; — поиск по анкетам и обращениям в поддержку.
+ */
+@AdminOnly
+public class FindCommand implements BotCommandHandler {
+    private final AuroraBot bot;
+    private final SearchView searchView;
+
+    public FindCommand(AuroraBot bot, SearchView searchView) {
+        this.bot = bot;
+        this.searchView = searchView;
+    }
+
+    @Override
+    public void handle(Long userId) {
+        handle(userId, "");
+    }
+
+    @Override
+    public void handle(Long userId, String args) {
+        if (args.isBlank()) {
+            bot.sendTextMessage(userId, "Укажите текст для поиска: /find &lt;текст&gt;");
+            return;
+        }
+        SearchView.Page page = searchView.render(userId, args.trim());
+        bot.sendTextButtonsMessage(userId, page.text(), page.buttons());
+    }
+}
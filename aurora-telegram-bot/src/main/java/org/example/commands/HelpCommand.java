@@ -15,6 +15,8 @@ public class HelpCommand implements BotCommandHandler {
         String helpMessage = """
                 /start - Заполнить анкету заново 🔄
 
+                /new_partner - Подобрать нового собеседника, если текущий не отвечает 🤝
+
                 /support️ - Предложить улучшения или сообщить об ошибках ️🛠""";
         bot.sendTextMessage(userId, helpMessage);
     }
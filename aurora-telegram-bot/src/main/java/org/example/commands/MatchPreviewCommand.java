@@ -0,0 +1,76 @@
+package org.example.commands;
+
+import org.example.AuroraBot;
+import org.example.annotations.AdminOnly;
+import org.example.interfaces.BotCommandHandler;
+import org.example.modules.profile_matching.ProfileMatchingResult;
+import org.example.modules.profile_matching.ProfileMatchingTask;
+
+import java.util.Map;
+
+@AdminOnly
+public class MatchPreviewCommand implements BotCommandHandler {
+    private final AuroraBot bot;
+    private final ProfileMatchingTask profileMatchingTask;
+
+    public MatchPreviewCommand(AuroraBot bot, ProfileMatchingTask profileMatchingTask) {
+        this.bot = bot;
+        this.profileMatchingTask = profileMatchingTask;
+    }
+
+    @Override
+    public void handle(Long userId) {
+        bot.sendTextMessage(userId, "Пробный подбор запущен, сообщения пользователям отправляться не будут.");
+        profileMatchingTask.previewMatching().ifPresentOrElse(
+                result -> bot.sendTextMessage(userId, buildSummary(result)),
+                () -> bot.sendTextMessage(userId, "Подбор уже выполняется. Попробуйте позже.")
+        );
+    }
+
+    private String buildSummary(ProfileMatchingResult result) {
+        StringBuilder summary = new StringBuilder(String.format("Пробный подбор #%d\n\n", result.getId()));
+
+        if (result.getErrorMessage() != null) {
+            summary.append("Ошибка: ").append(result.getErrorMessage()).append("\n\n");
+        }
+
+        summary.append(String.format("""
+                        Всего анкет: %s
+                        Участвуют в подборе: %s
+                        Кандидатов в пары: %s
+                        Пар будет составлено: %s
+                        Без пары: %d
+                        Пиковый heap: %d МБ
+
+                        """,
+                result.getTotalUsers(),
+                result.getEligibleUsers(),
+                result.getCandidatePairs(),
+                result.getMatchedPairs(),
+                result.getUnpairedUsers().size(),
+                result.getPeakHeapBytes() / (1024 * 1024)
+        ));
+
+        summary.append("Время фаз:\n");
+        for (Map.Entry<String, Long> phase : result.getPhaseDurations().entrySet()) {
+            summary.append(String.format("- %s: %d мс\n", phase.getKey(), phase.getValue()));
+        }
+
+        if (result.getMatchedPairs() != null && result.getMatchedPairs() > 0) {
+            summary.append(String.format("""
+
+                            Оценки сходства в парах:
+                            мин %.3f / медиана %.3f / p90 %.3f / макс %.3f / среднее %.3f
+                            Пар без совпадений (оценка 0): %d""",
+                    result.getMinScore(),
+                    result.getMedianScore(),
+                    result.getP90Score(),
+                    result.getMaxScore(),
+                    result.getMeanScore(),
+                    result.getZeroScorePairs()
+            ));
+        }
+
+        return summary.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.commands;
+
+import org.example.AuroraBot;
+import org.example.interfaces.BotCommandHandler;
+import org.example.modules.profile_matching.RematchService;
+
+import java.util.logging.Logger;
+
+public class NewPartnerCommand implements BotCommandHandler {
+    private static final Logger logger = Logger.getLogger(NewPartnerCommand.class.getName());
+
+    private final AuroraBot bot;
+    private final RematchService rematchService;
+
+    public NewPartnerCommand(AuroraBot bot, RematchService rematchService) {
+        this.bot = bot;
+        this.rematchService = rematchService;
+    }
+
+    @Override
+    public void handle(Long userId) {
+        try {
+            RematchService.RematchResult result = rematchService.rematch(userId);
+            switch (result.status()) {
+                // Анкету нового собеседника пользователь получает отдельным сообщением
+                case MATCHED -> logger.info("New partner " + result.partnerUserId() + " sent to userId: " + userId);
+                case NOT_ELIGIBLE -> bot.sendTextMessage(userId,
+                        "Подбор доступен участникам с видимой анкетой. Заполните анкету через /start или включите видимость в /profile.");
+                case ALREADY_REMATCHED -> bot.sendTextMessage(userId,
+                        "На этой неделе мы уже подбирали вам нового собеседника. Следующий подбор — в понедельник 😉");
+                case NO_CANDIDATES -> bot.sendTextMessage(userId,
+                        "Сейчас не нашлось свободного собеседника, с которым вы ещё не встречались. Попробуйте позже или напишите в /support.");
+            }
+        } catch (Exception e) {
+            logger.severe("Error handling new partner command for userId: " + userId + " - " + e.getMessage());
+            bot.sendTextMessage(userId, "Не удалось подобрать собеседника. Попробуйте позже.");
+        }
+    }
+}
@@ -2,7 +2,10 @@ package org.example.commands;
 
 import org.example.AuroraBot;
 import org.example.interfaces.BotCommandHandler;
+import org.example.messaging.Keyboard;
+import org.example.messaging.Templates;
 import org.example.models.UserInfo;
+import org.example.services.ProfileCardCache;
 import org.example.services.UserInfoService;
 
 import java.util.logging.Logger;
@@ -11,10 +14,12 @@ public class ProfileCommand implements BotCommandHandler {
     private static final Logger logger = Logger.getLogger(ProfileCommand.class.getName());
     private final AuroraBot bot;
     private final UserInfoService userInfoService;
+    private final ProfileCardCache profileCardCache;
 
-    public ProfileCommand(AuroraBot bot, UserInfoService userInfoService) {
+    public ProfileCommand(AuroraBot bot, UserInfoService userInfoService, ProfileCardCache profileCardCache) {
         this.bot = bot;
         this.userInfoService = userInfoService;
+        this.profileCardCache = profileCardCache;
     }
 
     @Override
@@ -30,12 +35,7 @@ public class ProfileCommand implements BotCommandHandler {
             String photoUrl = bot.getUserPhotoUrl(userId);
             String profileMessage = buildProfileMessage(userId, userInfo);
 
-            if (photoUrl != null) {
-                bot.sendPhotoMessage(userId, photoUrl);
-            }
-            bot.sendTextButtonsMessage(userId, profileMessage,
-                    "Редактировать", "accepted",
-                    "Сменить статус видимости", "toggle_visibility");
+            bot.getProfileCardSender().send(userId, photoUrl, profileMessage, Keyboard.PROFILE_ACTIONS);
 
             logger.info("Profile sent to userId: " + userId);
         } catch (Exception e) {
@@ -44,26 +44,6 @@ public class ProfileCommand implements BotCommandHandler {
     }
 
     private String buildProfileMessage(Long userId, UserInfo userInfo) {
-        String contactInfo = getContactInfo(userId);
-        String visibilityStatus = getVisibilityStatus(userInfo);
-
-        return String.format(
-                "Вот так будет выглядеть ваш профиль в сообщении, которое мы пришлём вашему собеседнику:\n⏬\n%s%s",
-                userInfoService.formatUserProfile(userInfo, contactInfo),
-                visibilityStatus
-        );
-    }
-
-    private String getContactInfo(Long userId) {
-        String userAlias = bot.getUserAlias(userId);
-        return (userAlias != null && !userAlias.equals("@null"))
-                ? userAlias
-                : String.format("<a href=\"tg://user?id=%d\">Профиль пользователя</a>", userId);
-    }
-
-    private String getVisibilityStatus(UserInfo userInfo) {
-        return userInfo.getIsVisible()
-                ? "\n✅ Ваша анкета видна."
-                : "\n❌ На данный момент вашу анкету никто не видит.";
+        return Templates.profilePreview(profileCardCache.getCard(userInfo, bot::getUserAlias), userInfo.getIsVisible());
     }
 }
@@ -1,51 +1,46 @@
 package org.example.commands;
 
 import org.example.AuroraBot;
+import org.example.annotations.AdminOnly;
 import org.example.interfaces.BotCommandHandler;
-import org.example.modules.statistics.ProfileStatistics;
-import org.example.modules.statistics.ProfileStatisticsRepository;
+import org.example.messaging.Templates;
+import org.example.models.projections.ProfileCounts;
+import org.example.modules.statistics.ProfileCounters;
+import org.example.modules.statistics.ProfileStatisticsReport;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Optional;
 
+/**
+ * /profile_stats — текущие значения и история за 7 дней; /profile_stats 30d | 12w | 6m | 1y — история за период.
+ */
+@AdminOnly
 public class ProfileStatsCommand implements BotCommandHandler {
     private final AuroraBot bot;
-    private final ProfileStatisticsRepository profileStatisticsRepository;
+    private final ProfileStatisticsReport profileStatisticsReport;
+    private final ProfileCounters profileCounters;
 
-    public ProfileStatsCommand(AuroraBot bot, ProfileStatisticsRepository profileStatisticsRepository) {
+    public ProfileStatsCommand(AuroraBot bot, ProfileStatisticsReport profileStatisticsReport, ProfileCounters profileCounters) {
         this.bot = bot;
-        this.profileStatisticsRepository = profileStatisticsRepository;
+        this.profileStatisticsReport = profileStatisticsReport;
+        this.profileCounters = profileCounters;
     }
 
     @Override
     public void handle(Long userId) {
-        LocalDate today = LocalDate.now();
-        LocalDate startDate = today.minusDays(7);
-
-        List<ProfileStatistics> stats = profileStatisticsRepository.findLast7DaysStatistics(startDate);
+        handle(userId, "");
+    }
 
-        if (stats.isEmpty()) {
-            bot.sendTextMessage(userId, "Нет данных для отображения за последние 7 дней.");
+    @Override
+    public void handle(Long userId, String args) {
+        Optional<String> history = profileStatisticsReport.render(args);
+        if (history.isEmpty()) {
+            bot.sendTextMessage(userId, ProfileStatisticsReport.USAGE);
             return;
         }
 
-        StringBuilder statsMessage = new StringBuilder("Подробная статистика за последние 7 дней:\n\n");
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-
-        for (ProfileStatistics stat : stats) {
-            String formattedDate = dateFormatter.format(stat.getDate());
-            statsMessage.append(String.format(
-                    "%-12s Всего профилей: %-5d Активных: %-5d Забанено: %-5d Заблокировали бота: %-5d Участвуют: %-5d\n",
-                    formattedDate,
-                    stat.getTotalProfiles(),
-                    stat.getActiveProfiles(),
-                    stat.getBannedProfiles(),
-                    stat.getBotBlockedProfiles(),
-                    stat.getEligibleProfiles()
-            ));
-        }
-
-        bot.sendTextMessage(userId, statsMessage.toString());
+        ProfileCounts now = profileCounters.snapshot();
+        bot.sendTextMessage(userId, Templates.PROFILE_STATS.render(
+                now.total(), now.active(), now.banned(), now.botBlocked(), now.eligible(), history.get()
+        ));
     }
 }
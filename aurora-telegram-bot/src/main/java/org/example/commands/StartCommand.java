@@ -2,6 +2,7 @@ package org.example.commands;
 
 import org.example.AuroraBot;
 import org.example.interfaces.BotCommandHandler;
+import org.example.messaging.Keyboard;
 
 public class StartCommand implements BotCommandHandler {
 
@@ -20,7 +21,6 @@ public class StartCommand implements BotCommandHandler {
                 Каждую неделю я буду подбирать для тебя нового интересного человека на основе твоих интересов.
 
                 Готов к неожиданным знакомствам?""";
-        bot.sendTextButtonsMessage(userId, startMessage,
-                "Поехали🚀", "start");
+        bot.sendTextButtonsMessage(userId, startMessage, Keyboard.START);
     }
 }
@@ -0,0 +1,23 @@
+package org.example.commands;
+
+import org.example.AuroraBot;
+import org.example.annotations.AdminOnly;
+import org.example.interfaces.BotCommandHandler;
+import org.example.modules.support_inbox.SupportInboxView;
+
+@AdminOnly
+public class SupportInboxCommand implements BotCommandHandler {
+    private final AuroraBot bot;
+    private final SupportInboxView inboxView;
+
+    public SupportInboxCommand(AuroraBot bot, SupportInboxView inboxView) {
+        this.bot = bot;
+        this.inboxView = inboxView;
+    }
+
+    @Override
+    public void handle(Long userId) {
+        SupportInboxView.Page page = inboxView.render(null);
+        bot.sendTextButtonsMessage(userId, page.text(), page.buttons());
+    }
+}
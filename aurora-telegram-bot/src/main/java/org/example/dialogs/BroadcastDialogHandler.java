@@ -2,10 +2,13 @@ package org.example.dialogs;
 
 import org.example.AuroraBot;
 import org.example.interfaces.DialogHandler;
-import org.example.models.UserInfo;
+import org.example.modules.outbox.OutboxService;
 import org.example.services.UserInfoService;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 public class BroadcastDialogHandler implements DialogHandler {
@@ -13,10 +16,12 @@ public class BroadcastDialogHandler implements DialogHandler {
     private static final Logger logger = Logger.getLogger(BroadcastDialogHandler.class.getName());
     private final AuroraBot bot;
     private final UserInfoService userInfoService;
+    private final OutboxService outboxService;
 
-    public BroadcastDialogHandler(AuroraBot bot, UserInfoService userInfoService) {
+    public BroadcastDialogHandler(AuroraBot bot, UserInfoService userInfoService, OutboxService outboxService) {
         this.bot = bot;
         this.userInfoService = userInfoService;
+        this.outboxService = outboxService;
     }
 
     @Override
@@ -28,33 +33,24 @@ public class BroadcastDialogHandler implements DialogHandler {
             return;
         }
 
-        int successCount = 0;
-        int failureCount = 0;
-
         try {
-            List<UserInfo> visibleUsers = userInfoService.getAllUsers().stream()
-                    //.filter(UserInfo::getIsVisible)
+            // Ключ рассылки зависит от текста и даты: случайно отправленный повторно тот же текст не уйдёт дважды
+            String broadcastKey = UUID.nameUUIDFromBytes((LocalDate.now() + "\n" + message).getBytes(StandardCharsets.UTF_8)).toString();
+            List<OutboxService.Entry> entries = userInfoService.streamRecipients()
+                    .map(user -> OutboxService.Entry.text("broadcast:" + broadcastKey + ":" + user.userId(), user.userId(), message))
                     .toList();
+            int enqueued = outboxService.enqueueAll(entries);
 
-            for (UserInfo user : visibleUsers) {
-                try {
-                    bot.sendTextMessage(user.getUserId(), message);
-                    logger.info("Sent broadcast message to user: " + user.getUserId());
-                    successCount++;
-                } catch (Exception e) {
-                    logger.severe("Failed to send message to user: " + user.getUserId() + ". Error: " + e.getMessage());
-                    failureCount++;
-                }
+            if (enqueued == 0 && !entries.isEmpty()) {
+                bot.sendTextMessage(userId, "Это сообщение уже было разослано сегодня.");
+            } else {
+                bot.sendTextMessage(userId, String.format("Сообщение поставлено в очередь на отправку %d пользователям.", enqueued));
             }
-
-            bot.sendTextMessage(userId, "Сообщение успешно отправлено всем видимым пользователям.");
             bot.getUserModes().remove(userId);
-
+            logger.info("Broadcast " + broadcastKey + " queued for " + enqueued + " users by: " + userId);
         } catch (Exception e) {
             bot.sendTextMessage(userId, "Произошла ошибка при отправке сообщения.");
             logger.severe("Error sending broadcast message: " + e.getMessage());
-        } finally {
-            logger.info("Broadcast summary: " + successCount + " messages sent successfully, " + failureCount + " failed.");
         }
     }
 }
@@ -2,7 +2,10 @@ package org.example.dialogs;
 
 import org.example.AuroraBot;
 import org.example.interfaces.DialogHandler;
+import org.example.messaging.Keyboard;
+import org.example.messaging.Templates;
 import org.example.models.UserInfo;
+import org.example.services.ProfileCardCache;
 import org.example.services.UserInfoService;
 
 import java.util.logging.Logger;
@@ -14,10 +17,12 @@ public class ProfileDialogHandler implements DialogHandler {
 
     private final AuroraBot bot;
     private final UserInfoService userInfoService;
+    private final ProfileCardCache profileCardCache;
 
-    public ProfileDialogHandler(AuroraBot bot, UserInfoService userInfoService) {
+    public ProfileDialogHandler(AuroraBot bot, UserInfoService userInfoService, ProfileCardCache profileCardCache) {
         this.bot = bot;
         this.userInfoService = userInfoService;
+        this.profileCardCache = profileCardCache;
     }
 
     @Override
@@ -60,8 +65,8 @@ public class ProfileDialogHandler implements DialogHandler {
     private void handleFunFactInput(Long userId, UserInfo userInfo, String message) {
         userInfo.setFunFact(message);
         try {
-            userInfoService.saveUserInfo(userInfo);
-            sendUserProfile(userId, userInfo);
+            UserInfo saved = userInfoService.saveUserInfo(userInfo);
+            sendUserProfile(userId, saved);
             bot.getUserModes().remove(userId);
             logger.info("Profile saved for userId: " + userId);
         } catch (Exception e) {
@@ -74,26 +79,10 @@ public class ProfileDialogHandler implements DialogHandler {
         String photoUrl = bot.getUserPhotoUrl(userId);
         String profileMessage = buildProfileMessage(userId, userInfo);
 
-        if (photoUrl != null) {
-            bot.sendPhotoMessage(userId, photoUrl);
-        }
-        bot.sendTextButtonsMessage(userId, profileMessage, "Редактировать", "accepted", "Сменить статус видимости", "toggle_visibility");
+        bot.getProfileCardSender().send(userId, photoUrl, profileMessage, Keyboard.PROFILE_ACTIONS);
     }
 
     private String buildProfileMessage(Long userId, UserInfo userInfo) {
-        String userAlias = bot.getUserAlias(userId);
-        String contactInfo = (userAlias != null && !userAlias.equals("@null"))
-                ? userAlias
-                : String.format("<a href=\"tg://user?id=%d\">Профиль пользователя</a>", userId);
-
-        String visibilityStatus = userInfo.getIsVisible()
-                ? "\n✅ Ваша анкета видна."
-                : "\n❌ На данный момент вашу анкету никто не видит.";
-
-        return String.format(
-                "Вот так будет выглядеть ваш профиль в сообщении, которое мы пришлём вашему собеседнику:\n⏬\n%s%s",
-                userInfoService.formatUserProfile(userInfo, contactInfo),
-                visibilityStatus
-        );
+        return Templates.profilePreview(profileCardCache.getCard(userInfo, bot::getUserAlias), userInfo.getIsVisible());
     }
 }
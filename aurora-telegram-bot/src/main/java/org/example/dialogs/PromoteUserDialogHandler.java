@@ -3,6 +3,7 @@ package org.example.dialogs;
 import org.example.AuroraBot;
 import org.example.interfaces.DialogHandler;
 import org.example.models.UserInfo;
+import org.example.models.projections.UserRecipient;
 import org.example.services.UserInfoService;
 
 import java.util.logging.Logger;
@@ -46,8 +47,8 @@ public class PromoteUserDialogHandler implements DialogHandler {
     }
 
     private Long findUserIdByUsername(String username) {
-        return userInfoService.getAllUsers().stream()
-                .map(UserInfo::getUserId)
+        return userInfoService.streamRecipients()
+                .map(UserRecipient::userId)
                 .filter(userId -> username.equals(bot.getUserAlias(userId)))
                 .findFirst()
                 .orElse(null);
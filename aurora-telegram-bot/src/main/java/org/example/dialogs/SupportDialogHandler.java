@@ -3,24 +3,24 @@ package org.example.dialogs;
 import org.example.AuroraBot;
 import org.example.interfaces.DialogHandler;
 import org.example.models.SupportRequest;
+import org.example.services.FloodLimiter;
 import org.example.services.SupportRequestService;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.Optional;
 import java.util.logging.Logger;
 
 public class SupportDialogHandler implements DialogHandler {
     private static final Logger logger = Logger.getLogger(SupportDialogHandler.class.getName());
     private static final int MAX_MESSAGE_LENGTH = 2000;
-    private static final int MIN_INTERVAL_MINUTES = 15;
 
     private final AuroraBot bot;
     private final SupportRequestService supportRequestService;
+    private final FloodLimiter floodLimiter;
 
-    public SupportDialogHandler(AuroraBot bot, SupportRequestService supportRequestService) {
+    public SupportDialogHandler(AuroraBot bot, SupportRequestService supportRequestService, FloodLimiter floodLimiter) {
         this.bot = bot;
         this.supportRequestService = supportRequestService;
+        this.floodLimiter = floodLimiter;
     }
 
     @Override
@@ -42,19 +42,16 @@ public class SupportDialogHandler implements DialogHandler {
     }
 
     private boolean isRequestTooFrequent(Long userId) {
-        Optional<SupportRequest> lastRequest = supportRequestService.getLastSupportRequest(userId);
-        if (lastRequest.isPresent()) {
-            LocalDateTime lastRequestTime = lastRequest.get().getCreatedAt();
-            Duration duration = Duration.between(lastRequestTime, LocalDateTime.now());
-            long minutesLeft = MIN_INTERVAL_MINUTES - duration.toMinutes();
-            if (minutesLeft > 0) {
-                bot.sendTextMessage(userId, String.format(
-                        "Вы можете отправить сообщение только раз в 15 минут. Пожалуйста, подождите ещё %d минут.", minutesLeft));
-                logger.warning("Support request too frequent for userId: " + userId);
-                return true;
-            }
+        Duration retryAfter = floodLimiter.retryAfter(userId, FloodLimiter.SUPPORT_REQUEST);
+        if (retryAfter.isZero()) {
+            return false;
         }
-        return false;
+        long minutesLeft = Math.max(1, (retryAfter.toSeconds() + 59) / 60);
+        bot.sendTextMessage(userId, String.format(
+                "Лимит обращений в поддержку: %s. Пожалуйста, подождите ещё %d мин.",
+                floodLimiter.describe(FloodLimiter.SUPPORT_REQUEST), minutesLeft));
+        logger.warning("Support request too frequent for userId: " + userId);
+        return true;
     }
 
     private void createAndSaveSupportRequest(Long userId, String message) {
@@ -64,6 +61,7 @@ public class SupportDialogHandler implements DialogHandler {
 
         try {
             supportRequestService.saveSupportRequest(supportRequest);
+            floodLimiter.record(userId, FloodLimiter.SUPPORT_REQUEST);
             bot.sendTextMessage(userId, "Ваш запрос в техподдержку успешно отправлен. Спасибо!");
             bot.getUserModes().remove(userId);
             logger.info("Support request saved for userId: " + userId);
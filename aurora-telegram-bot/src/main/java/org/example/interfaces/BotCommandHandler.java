@@ -2,4 +2,12 @@ package org.example.interfaces;
 
 public interface BotCommandHandler {
     void handle(Long userId);
+
+    /**
+     * Обрабатывает команду с аргументами — текстом после имени команды ("/profile_stats 30d" → "30d").
+     * По умолчанию аргументы игнорируются.
+     */
+    default void handle(Long userId, String args) {
+        handle(userId);
+    }
 }
@@ -2,4 +2,19 @@ package org.example.interfaces;
 
 public interface CallbackQueryHandler {
     void handle(Long userId, Integer messageId);
+
+    /**
+     * Обработка кнопки с аргументом: данные кнопки имеют вид {@code key:arg}, {@code arg} — часть после двоеточия.
+     */
+    default void handle(Long userId, Integer messageId, String arg) {
+        handle(userId, messageId);
+    }
+
+    /**
+     * Текст всплывающего уведомления, которое показывается сразу при нажатии кнопки, до выполнения обработчика.
+     * {@code null} — без уведомления, клиент только перестаёт показывать индикатор загрузки.
+     */
+    default String ackText(Long userId) {
+        return null;
+    }
 }
@@ -0,0 +1,8 @@
+package org.example.interfaces;
+
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+@FunctionalInterface
+public interface TelegramApiCall<T> {
+    T execute() throws TelegramApiException;
+}
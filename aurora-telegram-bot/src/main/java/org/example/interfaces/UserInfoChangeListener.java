@@ -0,0 +1,21 @@
+package org.example.interfaces;
+
+import org.example.models.UserInfo;
+import org.example.models.projections.ProfileFlags;
+
+public interface UserInfoChangeListener {
+    default void onUserInfoSaved(UserInfo before, UserInfo after) {
+    }
+
+    default void onUserInfoDeleted(UserInfo userInfo) {
+    }
+
+    /**
+     * Вызывается после точечного UPDATE одного флага анкеты, минуя загрузку сущности.
+     * Приходит только для строк, в которых значение {@code flag} действительно изменилось;
+     * {@code after} содержит все флаги анкеты после обновления и прежнее значение {@code flag}
+     * ({@link ProfileFlags#getPreviousValue()}) — не обязательно отрицание нового, оно могло быть {@code null}.
+     */
+    default void onFlagChanged(UserInfo.Flag flag, ProfileFlags after) {
+    }
+}
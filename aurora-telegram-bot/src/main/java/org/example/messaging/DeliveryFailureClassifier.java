@@ -0,0 +1,48 @@
+package org.example.messaging;
+
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+/**
+ * Разбирает ошибки Telegram API при отправке сообщения и отличает недоступный навсегда чат
+ * (бот заблокирован, аккаунт удалён, чат не найден) от временных ошибок вроде 429 или сетевых сбоев.
+ */
+public final class DeliveryFailureClassifier {
+
+    public enum Failure {
+        BOT_BLOCKED,
+        USER_DEACTIVATED,
+        CHAT_NOT_FOUND,
+        OTHER;
+
+        public boolean isChatUnreachable() {
+            return this != OTHER;
+        }
+    }
+
+    private DeliveryFailureClassifier() {
+    }
+
+    public static Failure classify(Throwable error) {
+        if (!(error instanceof TelegramApiRequestException requestException)) {
+            return Failure.OTHER;
+        }
+
+        Integer errorCode = requestException.getErrorCode();
+        String description = requestException.getApiResponse() != null
+                ? requestException.getApiResponse().toLowerCase()
+                : "";
+
+        if (errorCode != null && errorCode == 403) {
+            if (description.contains("bot was blocked by the user")) {
+                return Failure.BOT_BLOCKED;
+            }
+            if (description.contains("user is deactivated")) {
+                return Failure.USER_DEACTIVATED;
+            }
+        }
+        if (errorCode != null && errorCode == 400 && description.contains("chat not found")) {
+            return Failure.CHAT_NOT_FOUND;
+        }
+        return Failure.OTHER;
+    }
+}
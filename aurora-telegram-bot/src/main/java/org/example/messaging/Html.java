@@ -0,0 +1,38 @@
+package org.example.messaging;
+
+/**
+ * Сообщения отправляются с parse mode HTML, поэтому пользовательский текст нужно экранировать.
+ */
+public final class Html {
+
+    private Html() {
+    }
+
+    public static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Обрезает текст до {@code maxLength} символов и экранирует результат.
+     */
+    public static String preview(String text, int maxLength) {
+        if (text != null && text.length() > maxLength) {
+            text = text.substring(0, maxLength) + "…";
+        }
+        return escape(text);
+    }
+}
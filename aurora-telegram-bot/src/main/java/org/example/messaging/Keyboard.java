@@ -0,0 +1,71 @@
+package org.example.messaging;
+
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Готовая inline-клавиатура: по одной кнопке в ряд, как в {@link org.example.MultiSessionTelegramBot}.
+ * Хранит только неизменяемые пары «название — данные кнопки», поэтому постоянные клавиатуры объявлены
+ * константами и безопасно разделяются всеми отправками. {@link InlineKeyboardMarkup} и кнопки библиотеки
+ * изменяемы, так что разметка создаётся заново для каждого сообщения ({@link #toMarkup()}).
+ */
+public final class Keyboard {
+
+    public static final Keyboard NONE = new Keyboard(List.of());
+
+    public static final Keyboard PROFILE_ACTIONS = of(
+            "Редактировать", "accepted",
+            "Сменить статус видимости", "toggle_visibility");
+
+    public static final Keyboard START = of("Поехали🚀", "start");
+
+    public static final Keyboard ACCEPT_RULES = of("Принято 😊", "accepted");
+
+    private record Button(String text, String callbackData) {
+    }
+
+    private final List<Button> buttons;
+
+    private Keyboard(List<Button> buttons) {
+        this.buttons = buttons;
+    }
+
+    /**
+     * @param buttons чередующиеся название кнопки и данные кнопки
+     */
+    public static Keyboard of(String... buttons) {
+        if (buttons.length == 0) {
+            return NONE;
+        }
+        if (buttons.length % 2 != 0) {
+            throw new IllegalArgumentException("Buttons must be pairs of name and callback data");
+        }
+
+        List<Button> keyboard = new ArrayList<>(buttons.length / 2);
+        for (int i = 0; i < buttons.length; i += 2) {
+            keyboard.add(new Button(buttons[i], buttons[i + 1]));
+        }
+        return new Keyboard(List.copyOf(keyboard));
+    }
+
+    public boolean isEmpty() {
+        return buttons.isEmpty();
+    }
+
+    /**
+     * Новая разметка для одного сообщения; вызывающий может менять её, не затрагивая другие отправки.
+     */
+    public InlineKeyboardMarkup toMarkup() {
+        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>(buttons.size());
+        for (Button button : buttons) {
+            InlineKeyboardButton inlineButton = new InlineKeyboardButton();
+            inlineButton.setText(button.text());
+            inlineButton.setCallbackData(button.callbackData());
+            keyboard.add(List.of(inlineButton));
+        }
+        return new InlineKeyboardMarkup(keyboard);
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.messaging;
+
+import org.example.MultiSessionTelegramBot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Шаблон сообщения, разобранный один раз: подстановки {@code {name}} экранируются для HTML,
+ * {@code {name|raw}} вставляются как есть (для уже готовой разметки — ссылок, вложенных шаблонов).
+ * Значения передаются в {@link #render} в порядке имён, объявленных при компиляции; неизвестное
+ * или неиспользованное имя — ошибка при загрузке шаблона, а не при отправке.
+ */
+public final class MessageTemplate {
+
+    private static final String RAW_SUFFIX = "|raw";
+
+    private final String[] literals;
+    private final int[] argIndexes;
+    private final boolean[] raw;
+    private final int argCount;
+    private final int literalLength;
+
+    private MessageTemplate(String[] literals, int[] argIndexes, boolean[] raw, int argCount) {
+        this.literals = literals;
+        this.argIndexes = argIndexes;
+        this.raw = raw;
+        this.argCount = argCount;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static MessageTemplate compile(String source, String... argNames) {
+        List<String> names = List.of(argNames);
+        List<String> literals = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<Boolean> rawFlags = new ArrayList<>();
+        boolean[] used = new boolean[argNames.length];
+
+        int position = 0;
+        int open;
+        while ((open = source.indexOf('{', position)) >= 0) {
+            int close = source.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at " + open + " in template: " + source);
+            }
+            String placeholder = source.substring(open + 1, close);
+            boolean isRaw = placeholder.endsWith(RAW_SUFFIX);
+            String name = isRaw ? placeholder.substring(0, placeholder.length() - RAW_SUFFIX.length()) : placeholder;
+            int index = names.indexOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown placeholder {" + placeholder + "} in template: " + source);
+            }
+            used[index] = true;
+            literals.add(source.substring(position, open));
+            indexes.add(index);
+            rawFlags.add(isRaw);
+            position = close + 1;
+        }
+        literals.add(source.substring(position));
+
+        for (int i = 0; i < used.length; i++) {
+            if (!used[i]) {
+                throw new IllegalArgumentException("Argument " + argNames[i] + " is not used in template: " + source);
+            }
+        }
+
+        boolean[] raw = new boolean[rawFlags.size()];
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = rawFlags.get(i);
+        }
+        return new MessageTemplate(literals.toArray(String[]::new),
+                indexes.stream().mapToInt(Integer::intValue).toArray(), raw, argNames.length);
+    }
+
+    /**
+     * Загружает шаблон из {@code messages/<name>.txt} (см. {@link MultiSessionTelegramBot#loadMessage}).
+     */
+    public static MessageTemplate load(String name, String... argNames) {
+        return compile(MultiSessionTelegramBot.loadMessage(name), argNames);
+    }
+
+    public String render(Object... args) {
+        if (args.length != argCount) {
+            throw new IllegalArgumentException("Expected " + argCount + " arguments, got " + args.length);
+        }
+        StringBuilder result = new StringBuilder(literalLength + 32 * argIndexes.length);
+        for (int i = 0; i < argIndexes.length; i++) {
+            result.append(literals[i]);
+            String value = String.valueOf(args[argIndexes[i]]);
+            result.append(raw[i] ? value : Html.escape(value));
+        }
+        result.append(literals[literals.length - 1]);
+        return result.toString();
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.messaging;
+
+import org.example.MultiSessionTelegramBot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Отправляет карточку анкеты одним сообщением: фото с HTML-подписью и кнопками.
+ * Если текст не помещается в подпись, карточка отправляется двумя сообщениями — фото и текст с кнопками.
+ */
+public class ProfileCardSender {
+    private static final Logger logger = LoggerFactory.getLogger(ProfileCardSender.class);
+
+    /**
+     * Максимальная длина подписи к фото в Telegram (без учёта HTML-разметки).
+     */
+    public static final int CAPTION_LIMIT = 1024;
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern HTML_ENTITY = Pattern.compile("&(#\\d+|#x[0-9a-fA-F]+|[a-zA-Z]+);");
+
+    private final MultiSessionTelegramBot bot;
+
+    private final AtomicLong captionCards = new AtomicLong();
+    private final AtomicLong splitCards = new AtomicLong();
+    private final AtomicLong textOnlyCards = new AtomicLong();
+
+    public ProfileCardSender(MultiSessionTelegramBot bot) {
+        this.bot = bot;
+    }
+
+    /**
+     * Sends a profile card to a user.
+     *
+     * @param userId   the recipient user ID
+     * @param photoKey the photo file ID or null if the profile has no photo
+     * @param text     the HTML text of the card
+     * @param buttons  an array of button names and callback data
+     * @return true if every message of the card was sent
+     */
+    public boolean send(Long userId, String photoKey, String text, String... buttons) {
+        return send(userId, photoKey, text, Keyboard.of(buttons));
+    }
+
+    /**
+     * Sends a profile card with a prebuilt inline keyboard to a user.
+     *
+     * @return true if every message of the card was sent
+     */
+    public boolean send(Long userId, String photoKey, String text, Keyboard keyboard) {
+        if (photoKey == null) {
+            textOnlyCards.incrementAndGet();
+            return bot.sendTextButtonsMessage(userId, text, keyboard);
+        }
+
+        if (fitsCaption(text)) {
+            captionCards.incrementAndGet();
+            return bot.sendPhotoCaptionMessage(userId, photoKey, text, keyboard);
+        }
+
+        splitCards.incrementAndGet();
+        logger.debug("Profile card for user {} exceeds caption limit, sending photo and text separately.", userId);
+        boolean photoSent = bot.sendPhotoMessage(userId, photoKey);
+        boolean textSent = bot.sendTextButtonsMessage(userId, text, keyboard);
+        return photoSent && textSent;
+    }
+
+    /**
+     * Returns the number of Telegram API calls {@link #send} will make for the given card.
+     */
+    public int requiredCalls(String photoKey, String text) {
+        return photoKey != null && !fitsCaption(text) ? 2 : 1;
+    }
+
+    public boolean fitsCaption(String text) {
+        return visibleLength(text) <= CAPTION_LIMIT;
+    }
+
+    public long getCaptionCardCount() {
+        return captionCards.get();
+    }
+
+    public long getSplitCardCount() {
+        return splitCards.get();
+    }
+
+    public long getTextOnlyCardCount() {
+        return textOnlyCards.get();
+    }
+
+    private static int visibleLength(String html) {
+        String withoutTags = HTML_TAG.matcher(html).replaceAll("");
+        return HTML_ENTITY.matcher(withoutTags).replaceAll("_").length();
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.messaging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Равномерно распределяет вызовы Telegram API во времени, не превышая заданного количества в секунду.
+ * Потокобезопасен: каждый поток резервирует себе следующий свободный интервал и ждёт его наступления.
+ * <p>
+ * Лимит Telegram общий для всего бота, поэтому экземпляр один на приложение: рассылка подбора и outbox
+ * получают его через внедрение и при одновременной работе делят {@code aurora.telegram.messages-per-second}.
+ */
+@Component
+public class SendRateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeSlotNanos = System.nanoTime();
+
+    public SendRateLimiter(@Value("${aurora.telegram.messages-per-second:25}") int permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    }
+
+    public void acquire() {
+        acquire(1);
+    }
+
+    /**
+     * Блокирует поток до момента, когда можно выполнить {@code permits} вызовов подряд.
+     */
+    public void acquire(int permits) {
+        long slot;
+        synchronized (this) {
+            long now = System.nanoTime();
+            slot = Math.max(now, nextFreeSlotNanos);
+            nextFreeSlotNanos = slot + intervalNanos * permits;
+        }
+
+        long waitNanos;
+        while ((waitNanos = slot - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.messaging;
+
+import org.example.models.UserInfo;
+
+/**
+ * Шаблоны сообщений из {@code resources/messages}. Разбираются один раз при загрузке класса;
+ * класс загружается при старте бота ({@link #initialize()}), поэтому ошибка в шаблоне останавливает запуск,
+ * а не всплывает при отправке сообщения пользователю.
+ */
+public final class Templates {
+
+    public static final MessageTemplate PROFILE_CARD = MessageTemplate.load("profile_card",
+            "name", "age", "discussionTopic", "funFact", "contactInfo");
+
+    public static final MessageTemplate PROFILE_PREVIEW = MessageTemplate.load("profile_preview",
+            "card", "visibilityStatus");
+
+    public static final MessageTemplate MATCH_NOTIFICATION = MessageTemplate.load("match_notification",
+            "card");
+
+    public static final MessageTemplate PROFILE_STATS = MessageTemplate.load("profile_stats",
+            "total", "active", "banned", "botBlocked", "eligible", "history");
+
+    public static final MessageTemplate CONTACT_LINK = MessageTemplate.compile(
+            "<a href=\"tg://user?id={userId}\">Профиль пользователя</a>", "userId");
+
+    public static final String PROFILE_VISIBLE = "\n✅ Ваша анкета видна.";
+    public static final String PROFILE_HIDDEN = "\n❌ На данный момент вашу анкету никто не видит.";
+
+    private Templates() {
+    }
+
+    /**
+     * Загружает класс и тем самым разбирает все шаблоны. Вызывается при инициализации бота.
+     */
+    public static void initialize() {
+    }
+
+    /**
+     * Контакт для карточки: алиас в Telegram или ссылка на профиль, если алиаса нет.
+     *
+     * @param userId владелец анкеты (в уведомлении о подборе — партнёр), а не получатель сообщения
+     */
+    public static String contactInfo(Long userId, String userAlias) {
+        return userAlias != null && !userAlias.equals("@null")
+                ? Html.escape(userAlias)
+                : CONTACT_LINK.render(userId);
+    }
+
+    /**
+     * @param contactInfo готовая HTML-разметка контакта, см. {@link #contactInfo}
+     */
+    public static String profileCard(UserInfo userInfo, String contactInfo) {
+        return PROFILE_CARD.render(
+                userInfo.getName(),
+                userInfo.getAge(),
+                userInfo.getDiscussionTopic(),
+                userInfo.getFunFact(),
+                contactInfo
+        );
+    }
+
+    /**
+     * Карточка анкеты в том виде, в котором её видит сам пользователь, со строкой о видимости.
+     */
+    public static String profilePreview(String card, boolean visible) {
+        return PROFILE_PREVIEW.render(card, visible ? PROFILE_VISIBLE : PROFILE_HIDDEN);
+    }
+}
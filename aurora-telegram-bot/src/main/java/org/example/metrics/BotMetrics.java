@@ -0,0 +1,163 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.interfaces.TelegramApiCall;
+import org.example.messaging.ProfileCardSender;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Метрики бота, доступные по /actuator/prometheus: время обработки обновлений по командам, кнопкам и режимам диалога,
+ * время и ошибки вызовов Telegram API по методам, число обновлений в обработке и длительность периодических задач.
+ * Значения тегов ограничены известными именами (неизвестные команды приходят как "unknown").
+ */
+@Component
+public class BotMetrics {
+
+    private final MeterRegistry registry;
+    private final AtomicInteger updatesInFlight;
+
+    @Autowired
+    public BotMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.updatesInFlight = registry.gauge("aurora.updates.in.flight", new AtomicInteger());
+    }
+
+    /**
+     * @return момент начала обработки для {@link #updateFinished}
+     */
+    public long updateStarted() {
+        updatesInFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * @param type command, callback, dialog или other
+     * @param name команда, данные кнопки или режим диалога
+     */
+    public void updateFinished(String type, String name, long startNanos, boolean failed) {
+        updatesInFlight.decrementAndGet();
+        Timer.builder("aurora.update.duration")
+                .description("Time to handle one Telegram update")
+                .tag("type", type)
+                .tag("name", name)
+                .tag("outcome", failed ? "error" : "success")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Записывает время от получения обновления с нажатием кнопки до ответа Telegram на AnswerCallbackQuery —
+     * столько пользователь видит индикатор загрузки. Сюда входят проверка частоты и выбор обработчика,
+     * но не работа самого обработчика: ответ отправляется до его вызова.
+     *
+     * @param name данные кнопки без аргумента, "unknown" или "rejected" (отклонено ограничением частоты)
+     * @param receivedNanos {@link System#nanoTime()} в момент получения обновления
+     */
+    public void callbackAcknowledged(String name, long receivedNanos, boolean failed) {
+        Timer.builder("aurora.callback.ack.duration")
+                .description("Time until a callback query is answered")
+                .tag("name", name)
+                .tag("outcome", failed ? "error" : "success")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - receivedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Регистрирует счётчики отправленных карточек анкет по способу отправки:
+     * фото с подписью, фото и отдельный текст, только текст.
+     */
+    public void bindProfileCardSender(ProfileCardSender sender) {
+        FunctionCounter.builder("aurora.profile.cards.sent", sender, ProfileCardSender::getCaptionCardCount)
+                .description("Profile cards sent")
+                .tag("path", "caption")
+                .register(registry);
+        FunctionCounter.builder("aurora.profile.cards.sent", sender, ProfileCardSender::getSplitCardCount)
+                .description("Profile cards sent")
+                .tag("path", "split")
+                .register(registry);
+        FunctionCounter.builder("aurora.profile.cards.sent", sender, ProfileCardSender::getTextOnlyCardCount)
+                .description("Profile cards sent")
+                .tag("path", "text")
+                .register(registry);
+    }
+
+    /**
+     * Учитывает обновление, отклонённое ограничением частоты до обработки.
+     */
+    public void updateRejected(String type) {
+        Counter.builder("aurora.updates.rejected")
+                .description("Updates dropped by the flood limiter")
+                .tag("type", type)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Выполняет вызов Telegram API и записывает его время и, при ошибке, код ошибки.
+     *
+     * @param method имя метода API, например SendMessage
+     */
+    public <T> T observeApiCall(String method, TelegramApiCall<T> call) throws TelegramApiException {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.execute();
+        } catch (TelegramApiException | RuntimeException e) {
+            outcome = "error";
+            Counter.builder("aurora.telegram.api.errors")
+                    .description("Failed Telegram API calls")
+                    .tag("method", method)
+                    .tag("code", errorCode(e))
+                    .register(registry)
+                    .increment();
+            throw e;
+        } finally {
+            Timer.builder("aurora.telegram.api.duration")
+                    .description("Telegram API call latency")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Выполняет периодическую задачу и записывает её длительность.
+     */
+    public void timeTask(String task, Runnable body) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            body.run();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            Timer.builder("aurora.task.duration")
+                    .description("Scheduled task duration")
+                    .tag("task", task)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String errorCode(Exception e) {
+        if (e instanceof TelegramApiRequestException requestException && requestException.getErrorCode() != null) {
+            return String.valueOf(requestException.getErrorCode());
+        }
+        return e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.metrics;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Постоянная JFR-запись с ограничением по времени и размеру. Снять дамп без перезапуска:
+ * {@code jcmd <pid> JFR.dump name=aurora filename=/tmp/aurora.jfr}
+ */
+@Component
+public class FlightRecording {
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecording.class);
+
+    public static final String RECORDING_NAME = "aurora";
+    private static final String SETTINGS_RESOURCE = "jfr/aurora.jfc";
+
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+
+    private Recording recording;
+
+    public FlightRecording(@Value("${aurora.jfr.enabled:true}") boolean enabled,
+                           @Value("${aurora.jfr.max-age:PT6H}") Duration maxAge,
+                           @Value("${aurora.jfr.max-size-mb:256}") long maxSizeMb) {
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || !FlightRecorder.isAvailable() || recording != null) {
+            return;
+        }
+        boolean alreadyRunning = FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .anyMatch(existing -> RECORDING_NAME.equals(existing.getName()));
+        if (alreadyRunning) {
+            logger.info("JFR recording '{}' is already started from the command line.", RECORDING_NAME);
+            return;
+        }
+
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(loadSettings().getSettings());
+
+            recording = new Recording(settings);
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.setMaxAge(maxAge);
+            recording.setMaxSize(maxSizeBytes);
+            recording.start();
+            logger.info("JFR recording '{}' started (max age {}, max size {} MB).", RECORDING_NAME, maxAge, maxSizeBytes / 1024 / 1024);
+        } catch (Exception e) {
+            logger.error("Failed to start JFR recording", e);
+        }
+    }
+
+    private Configuration loadSettings() throws Exception {
+        try (InputStream in = FlightRecording.class.getClassLoader().getResourceAsStream(SETTINGS_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("JFR settings not found: " + SETTINGS_RESOURCE);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.metrics;
+
+import jdk.jfr.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * JFR-событие обработки одного обновления в {@link org.example.AuroraBot}.
+ * Вместо user id пишется хэш с солью процесса: записи одного пользователя можно связать внутри дампа,
+ * но сам id из дампа не восстанавливается простым перебором по известным id без соли.
+ */
+@Name("org.example.HandlerInvocation")
+@Label("Handler Invocation")
+@Category({"Aurora", "Bot"})
+@StackTrace(false)
+public class HandlerInvocationEvent extends Event {
+
+    private static final long USER_HASH_SALT = ThreadLocalRandom.current().nextLong();
+
+    @Label("Type")
+    public String type;
+
+    @Label("Name")
+    public String name;
+
+    @Label("User Hash")
+    public int userHash;
+
+    @Label("Failed")
+    public boolean failed;
+
+    public static int userHash(Long userId) {
+        if (userId == null) {
+            return 0;
+        }
+        long mixed = (userId ^ USER_HASH_SALT) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR-событие одной фазы {@link org.example.modules.profile_matching.TextSimilarity}:
+ * индексации, поиска, сортировки или добора пар.
+ */
+@Name("org.example.MatchingPhase")
+@Label("Matching Phase")
+@Category({"Aurora", "Matching"})
+@StackTrace(false)
+public class MatchingPhaseEvent extends Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Documents")
+    @Description("Number of profiles the phase works on")
+    public int documents;
+
+    @Label("Results")
+    @Description("Number of similarity pairs produced or processed")
+    public int results;
+
+    public static MatchingPhaseEvent start(String phase, int documents) {
+        MatchingPhaseEvent event = new MatchingPhaseEvent();
+        event.phase = phase;
+        event.documents = documents;
+        event.begin();
+        return event;
+    }
+
+    public void finish(int results) {
+        this.results = results;
+        commit();
+    }
+}
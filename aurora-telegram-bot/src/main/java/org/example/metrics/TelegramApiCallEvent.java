@@ -0,0 +1,22 @@
+package org.example.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR-событие одного вызова Telegram API из {@link org.example.MultiSessionTelegramBot}.
+ */
+@Name("org.example.TelegramApiCall")
+@Label("Telegram API Call")
+@Category({"Aurora", "Telegram API"})
+@StackTrace(false)
+public class TelegramApiCallEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    @Label("Error")
+    public String error;
+}
@@ -35,8 +35,18 @@ public class SupportRequest {
     @Column(name = "status", nullable = false)
     private RequestStatus requestStatus = RequestStatus.OPEN;
 
+    // Администратор, взявший обращение в работу
+    private Long assigneeUserId;
+
+    private LocalDateTime updatedAt;
+
+    // Попало ли обращение в сводку для администраторов
+    @Column(nullable = false)
+    private Boolean adminNotified = false;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
     }
 }
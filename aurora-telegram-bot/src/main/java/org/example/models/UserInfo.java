@@ -38,8 +38,35 @@ public class UserInfo {
     @Column(nullable = false)
     private Role role = Role.USER;
 
+    // Увеличивается при каждом сохранении анкеты; UPDATE флагов в UserInfoRepository её не меняют
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    public UserInfo copy() {
+        UserInfo copy = new UserInfo();
+        copy.setId(id);
+        copy.setUserId(userId);
+        copy.setName(name);
+        copy.setAge(age);
+        copy.setDiscussionTopic(discussionTopic);
+        copy.setFunFact(funFact);
+        copy.setIsVisible(isVisible);
+        copy.setIsBanned(isBanned);
+        copy.setIsBotBlocked(isBotBlocked);
+        copy.setRole(role);
+        copy.setVersion(version);
+        return copy;
+    }
+
     public enum Role {
         ADMIN,
         USER
     }
+
+    public enum Flag {
+        VISIBLE,
+        BANNED,
+        BOT_BLOCKED
+    }
 }
@@ -0,0 +1,20 @@
+package org.example.models.projections;
+
+import org.example.models.UserInfo;
+
+/**
+ * Поля анкеты, которые нужны алгоритму подбора.
+ */
+public record MatchingProfile(Long id, Long userId, String name, String age, String discussionTopic, String funFact) {
+
+    public static MatchingProfile of(UserInfo userInfo) {
+        return new MatchingProfile(
+                userInfo.getId(),
+                userInfo.getUserId(),
+                userInfo.getName(),
+                userInfo.getAge(),
+                userInfo.getDiscussionTopic(),
+                userInfo.getFunFact()
+        );
+    }
+}
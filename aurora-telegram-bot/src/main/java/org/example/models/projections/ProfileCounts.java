@@ -0,0 +1,7 @@
+package org.example.models.projections;
+
+/**
+ * Количество анкет по состояниям: всего, видимых, забаненных, заблокировавших бота и участвующих в подборе.
+ */
+public record ProfileCounts(long total, long active, long banned, long botBlocked, long eligible) {
+}
@@ -0,0 +1,19 @@
+package org.example.models.projections;
+
+/**
+ * Флаги анкеты после точечного UPDATE ... RETURNING.
+ */
+public interface ProfileFlags {
+    Long getUserId();
+
+    Boolean getIsVisible();
+
+    Boolean getIsBanned();
+
+    Boolean getIsBotBlocked();
+
+    /**
+     * Значение изменённого флага до UPDATE, может быть {@code null} в старых строках.
+     */
+    Boolean getPreviousValue();
+}
@@ -0,0 +1,6 @@
+package org.example.models.projections;
+
+import org.example.models.SupportRequest;
+
+public record StatusCount(SupportRequest.RequestStatus status, long count) {
+}
@@ -0,0 +1,7 @@
+package org.example.models.projections;
+
+/**
+ * Получатель массовой рассылки: только ключ для постраничного обхода и Telegram user id.
+ */
+public record UserRecipient(Long id, Long userId) {
+}
@@ -0,0 +1,11 @@
+package org.example.modules.activity;
+
+import java.time.Instant;
+
+/**
+ * Одно событие журнала активности.
+ *
+ * @param name команда, данные кнопки, режим диалога или метод Telegram API
+ */
+public record ActivityEvent(Instant occurredAt, Long userId, ActivityEventType type, String name) {
+}
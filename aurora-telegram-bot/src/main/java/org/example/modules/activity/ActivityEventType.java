@@ -0,0 +1,23 @@
+package org.example.modules.activity;
+
+/**
+ * Тип события журнала активности. В таблицу пишется {@link #code}, поэтому коды нельзя менять или переиспользовать.
+ */
+public enum ActivityEventType {
+    COMMAND(1),
+    CALLBACK(2),
+    DIALOG_STEP(3),
+    DIALOG_COMPLETED(4),
+    SEND_OK(5),
+    SEND_FAILED(6);
+
+    private final short code;
+
+    ActivityEventType(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+}
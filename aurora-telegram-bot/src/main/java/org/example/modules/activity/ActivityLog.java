@@ -0,0 +1,130 @@
+package org.example.modules.activity;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Журнал активности пользователей (DAU, использование команд, доля завершённых диалогов).
+ * {@link #record} только кладёт событие в ограниченную очередь и никогда не блокирует обработку обновления:
+ * если очередь заполнена, событие отбрасывается и учитывается в {@link #getDroppedCount()}.
+ * Очередь разбирается по расписанию и пишется в activity_event пачками через JDBC batch.
+ */
+@Component
+public class ActivityLog {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLog.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO activity_event (occurred_at, user_id, type, name) VALUES (?, ?, ?, ?)";
+    private static final int MAX_NAME_LENGTH = 64;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<ActivityEvent> queue;
+    private final int batchSize;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    @Autowired
+    public ActivityLog(JdbcTemplate jdbcTemplate,
+                       @Value("${aurora.activity.queue-capacity:10000}") int queueCapacity,
+                       @Value("${aurora.activity.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    public void record(Long userId, ActivityEventType type, String name) {
+        if (name != null && name.length() > MAX_NAME_LENGTH) {
+            name = name.substring(0, MAX_NAME_LENGTH);
+        }
+        if (queue.offer(new ActivityEvent(Instant.now(), userId, type, name))) {
+            recorded.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${aurora.activity.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flush() {
+        List<ActivityEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                write(batch);
+                written.addAndGet(batch.size());
+            } catch (Exception e) {
+                // Повторно не пишем: журнал не должен копить события, пока база недоступна
+                dropped.addAndGet(batch.size());
+                logger.error("Failed to write {} activity events", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<ActivityEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, event) -> {
+            statement.setTimestamp(1, Timestamp.from(event.occurredAt()));
+            if (event.userId() != null) {
+                statement.setLong(2, event.userId());
+            } else {
+                statement.setNull(2, Types.BIGINT);
+            }
+            statement.setShort(3, event.type().getCode());
+            statement.setString(4, event.name());
+        });
+    }
+
+    /**
+     * Создаёт месячные секции на текущий и следующий месяц заранее, чтобы события не попадали в секцию по умолчанию.
+     */
+    @PostConstruct
+    @Scheduled(cron = "0 0 3 * * *")
+    public void createPartitions() {
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        for (int i = 0; i < 2; i++) {
+            LocalDate from = month.plusMonths(i);
+            LocalDate to = from.plusMonths(1);
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS activity_event_%s PARTITION OF activity_event " +
+                                "FOR VALUES FROM ('%s') TO ('%s')",
+                        PARTITION_SUFFIX.format(from), from, to));
+            } catch (Exception e) {
+                logger.error("Failed to create activity_event partition for {}", from, e);
+            }
+        }
+    }
+
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class DailySupportRequestReportTask {
@@ -34,8 +35,9 @@ public class DailySupportRequestReportTask {
     public void sendDailySupportRequestReport() {
         logger.info("Starting daily support request report task.");
 
-        long openRequests = supportRequestService.countByStatus(SupportRequest.RequestStatus.OPEN);
-        long inProgressRequests = supportRequestService.countByStatus(SupportRequest.RequestStatus.IN_PROGRESS);
+        Map<SupportRequest.RequestStatus, Long> counts = supportRequestService.countAllByStatus();
+        long openRequests = counts.get(SupportRequest.RequestStatus.OPEN);
+        long inProgressRequests = counts.get(SupportRequest.RequestStatus.IN_PROGRESS);
 
         String message = String.format(
                 """
@@ -0,0 +1,189 @@
+package org.example.modules.outbox;
+
+import org.example.AuroraBot;
+import org.example.messaging.SendRateLimiter;
+import org.example.services.BlockedChatRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Отправляет сообщения из outbox_message пачками в пределах лимита Telegram API.
+ * Доставка — «хотя бы один раз»: сообщение помечается отправленным после ответа Telegram, поэтому при падении
+ * процесса между отправкой и отметкой оно может уйти повторно после истечения аренды. Получателям, заблокировавшим
+ * бота, сообщение не отправляется и сразу помечается как FAILED; остальные ошибки повторяются с нарастающей паузой.
+ * <p>
+ * Очередь разбирается в отдельном потоке: рассылка на всю базу идёт со скоростью лимита Telegram и может занять
+ * больше часа, а поток планировщика нужен остальным периодическим задачам.
+ */
+@Component
+public class OutboxDrainTask {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDrainTask.class);
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OutboxMessageRepository repository;
+    private final AuroraBot auroraBot;
+    private final BlockedChatRegistry blockedChatRegistry;
+    private final SendRateLimiter rateLimiter;
+    private final ExecutorService executor;
+    private final ExecutorService drainer = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final int batchSize;
+    private final int leaseSeconds;
+    private final int maxAttempts;
+    private final int retentionDays;
+
+    @Autowired
+    public OutboxDrainTask(OutboxMessageRepository repository,
+                           AuroraBot auroraBot,
+                           BlockedChatRegistry blockedChatRegistry,
+                           SendRateLimiter rateLimiter,
+                           @Value("${aurora.outbox.drain-threads:4}") int drainThreads,
+                           @Value("${aurora.outbox.batch-size:100}") int batchSize,
+                           @Value("${aurora.outbox.lease-seconds:300}") int leaseSeconds,
+                           @Value("${aurora.outbox.max-attempts:5}") int maxAttempts,
+                           @Value("${aurora.outbox.retention-days:7}") int retentionDays) {
+        this.repository = repository;
+        this.auroraBot = auroraBot;
+        this.blockedChatRegistry = blockedChatRegistry;
+        this.rateLimiter = rateLimiter;
+        this.executor = Executors.newFixedThreadPool(drainThreads);
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(fixedDelayString = "${aurora.outbox.drain-interval-ms:1000}")
+    public void drain() {
+        // Если разбор уже идёт, новый не запускается: он сам заберёт появившиеся сообщения
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            drainer.execute(() -> {
+                try {
+                    drainQueue();
+                } catch (RuntimeException e) {
+                    logger.error("Outbox drain failed", e);
+                } finally {
+                    draining.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Приложение останавливается
+            draining.set(false);
+        }
+    }
+
+    private void drainQueue() {
+        List<OutboxMessage> batch;
+        // Пока очередь не пуста, пачки забираются подряд без ожидания следующего запуска
+        while (!drainer.isShutdown() && !(batch = repository.claimBatch(batchSize, leaseSeconds)).isEmpty()) {
+            sendBatch(batch);
+        }
+    }
+
+    private void sendBatch(List<OutboxMessage> batch) {
+        Set<Long> sent = ConcurrentHashMap.newKeySet();
+        Set<Long> blocked = ConcurrentHashMap.newKeySet();
+        List<OutboxMessage> failed = new CopyOnWriteArrayList<>();
+
+        List<Future<?>> futures = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            futures.add(executor.submit(() -> {
+                if (blockedChatRegistry.isBlocked(message.getChatId())) {
+                    blocked.add(message.getId());
+                } else if (send(message)) {
+                    sent.add(message.getId());
+                } else if (blockedChatRegistry.isBlocked(message.getChatId())) {
+                    // Ответ Telegram показал, что бот заблокирован — повтор бесполезен
+                    blocked.add(message.getId());
+                } else {
+                    failed.add(message);
+                }
+            }));
+        }
+        awaitAll(futures);
+
+        if (!sent.isEmpty()) {
+            repository.markSent(sent);
+        }
+        if (!blocked.isEmpty()) {
+            repository.markFailed(blocked, "bot blocked by user");
+        }
+        for (OutboxMessage message : failed) {
+            retryOrFail(message);
+        }
+        logger.info("Outbox batch: {} sent, {} skipped (blocked), {} failed.", sent.size(), blocked.size(), failed.size());
+    }
+
+    private boolean send(OutboxMessage message) {
+        rateLimiter.acquire();
+        try {
+            return switch (message.getKind()) {
+                case TEXT -> auroraBot.sendTextButtonsMessage(message.getChatId(), message.getText(), message.getButtonArray());
+                case PHOTO -> auroraBot.sendPhotoCaptionMessage(message.getChatId(), message.getPhoto(), message.getText(), message.getButtonArray());
+            };
+        } catch (Exception e) {
+            logger.error("Error sending outbox message {} to chat {}", message.getId(), message.getChatId(), e);
+            return false;
+        }
+    }
+
+    private void retryOrFail(OutboxMessage message) {
+        // attempts уже увеличен при захвате пачки
+        if (message.getAttempts() >= maxAttempts) {
+            repository.markFailed(List.of(message.getId()), "max attempts reached");
+            logger.warn("Outbox message {} to chat {} failed after {} attempts.", message.getId(), message.getChatId(), message.getAttempts());
+            return;
+        }
+        long backoffSeconds = 30L * message.getAttempts() * message.getAttempts();
+        repository.reschedule(message.getId(), LocalDateTime.now().plusSeconds(backoffSeconds),
+                truncate("send failed, attempt " + message.getAttempts()));
+    }
+
+    @Scheduled(cron = "0 30 * * * *")
+    public void purgeCompleted() {
+        int purged = repository.purgeCompletedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            logger.info("Purged {} completed outbox messages.", purged);
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        drainer.shutdown();
+        executor.shutdown();
+    }
+
+    private void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.error("Outbox send task failed", e.getCause());
+            }
+        }
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.modules.outbox;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Исходящее сообщение в очереди на отправку. Кнопки хранятся так же, как передаются в
+ * {@link org.example.MultiSessionTelegramBot}: чередующиеся название и данные кнопки, по одному на строку.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "outbox_message")
+public class OutboxMessage {
+
+    public enum Kind {
+        TEXT,
+        PHOTO
+    }
+
+    public enum Status {
+        PENDING,
+        SENT,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 128)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private Long chatId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    @Column(nullable = false, length = 4096)
+    private String text;
+
+    @Column(length = 1024)
+    private String photo;
+
+    @Column(columnDefinition = "TEXT")
+    private String buttons;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+
+    public String[] getButtonArray() {
+        return buttons == null || buttons.isEmpty() ? new String[0] : buttons.split("\n");
+    }
+}
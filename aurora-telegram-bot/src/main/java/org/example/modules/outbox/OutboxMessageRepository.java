@@ -0,0 +1,50 @@
+package org.example.modules.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // Забирает пачку готовых к отправке сообщений. SKIP LOCKED позволяет нескольким воркерам (или экземплярам бота)
+    // разбирать очередь без ожидания друг друга; сдвиг next_attempt_at — аренда: если процесс упадёт во время отправки,
+    // сообщения снова станут доступны после её истечения.
+    @Transactional
+    @Query(value = "UPDATE outbox_message SET attempts = attempts + 1, " +
+            "next_attempt_at = now() + make_interval(secs => :leaseSeconds) " +
+            "WHERE id IN (SELECT id FROM outbox_message WHERE status = 'PENDING' AND next_attempt_at <= now() " +
+            "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *", nativeQuery = true)
+    List<OutboxMessage> claimBatch(int limit, int leaseSeconds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage m SET m.status = org.example.modules.outbox.OutboxMessage.Status.SENT, " +
+            "m.completedAt = CURRENT_TIMESTAMP WHERE m.id IN :ids")
+    int markSent(Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage m SET m.status = org.example.modules.outbox.OutboxMessage.Status.FAILED, " +
+            "m.completedAt = CURRENT_TIMESTAMP, m.lastError = :error WHERE m.id IN :ids")
+    int markFailed(Collection<Long> ids, String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage m SET m.nextAttemptAt = :nextAttemptAt, m.lastError = :error WHERE m.id = :id")
+    int reschedule(Long id, LocalDateTime nextAttemptAt, String error);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM outbox_message WHERE status <> 'PENDING' AND completed_at < :before", nativeQuery = true)
+    int purgeCompletedBefore(LocalDateTime before);
+
+    long countByStatus(OutboxMessage.Status status);
+}
@@ -0,0 +1,62 @@
+package org.example.modules.outbox;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Постановка исходящих сообщений в outbox_message. Вызывается внутри транзакции, меняющей состояние
+ * (JdbcTemplate участвует в текущей транзакции JPA), поэтому сообщения появляются в очереди тогда и только тогда,
+ * когда фиксируется само изменение. Повторная постановка с тем же ключом игнорируется.
+ */
+@Service
+public class OutboxService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_message (idempotency_key, chat_id, kind, text, photo, buttons) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (idempotency_key) DO NOTHING";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OutboxService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public boolean enqueue(Entry entry) {
+        return enqueueAll(List.of(entry)) > 0;
+    }
+
+    /**
+     * @return количество поставленных сообщений без учёта уже существующих ключей
+     */
+    @Transactional
+    public int enqueueAll(List<Entry> entries) {
+        int[][] results = jdbcTemplate.batchUpdate(INSERT_SQL, entries, BATCH_SIZE, (statement, entry) -> {
+            statement.setString(1, entry.idempotencyKey());
+            statement.setLong(2, entry.chatId());
+            statement.setString(3, entry.kind().name());
+            statement.setString(4, entry.text());
+            statement.setString(5, entry.photo());
+            statement.setString(6, entry.buttons().length > 0 ? String.join("\n", entry.buttons()) : null);
+        });
+        return Arrays.stream(results).flatMapToInt(Arrays::stream).map(count -> Math.max(count, 0)).sum();
+    }
+
+    public record Entry(String idempotencyKey, Long chatId, OutboxMessage.Kind kind, String text, String photo, String[] buttons) {
+
+        public static Entry text(String idempotencyKey, Long chatId, String text, String... buttons) {
+            return new Entry(idempotencyKey, chatId, OutboxMessage.Kind.TEXT, text, null, buttons);
+        }
+
+        public static Entry photo(String idempotencyKey, Long chatId, String photo, String caption, String... buttons) {
+            return new Entry(idempotencyKey, chatId, OutboxMessage.Kind.PHOTO, caption, photo, buttons);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.modules.profile_matching;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Одна запись журнала доставки: получатель должен получить анкету партнёра из плана подбора.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "match_delivery")
+public class MatchDelivery {
+
+    public enum DeliveryStatus {
+        PENDING,
+        SENT,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "result_id", nullable = false)
+    private Long resultId;
+
+    @Column(nullable = false)
+    private Long recipientUserId;
+
+    @Column(nullable = false)
+    private Long partnerUserId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeliveryStatus status = DeliveryStatus.PENDING;
+
+    private LocalDateTime deliveredAt;
+
+    public MatchDelivery(Long recipientUserId, Long partnerUserId) {
+        this.recipientUserId = recipientUserId;
+        this.partnerUserId = partnerUserId;
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.modules.profile_matching;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MatchDeliveryRepository extends JpaRepository<MatchDelivery, Long> {
+    List<MatchDelivery> findByResultIdAndStatusOrderByIdAsc(Long resultId, MatchDelivery.DeliveryStatus status);
+}
@@ -0,0 +1,175 @@
+package org.example.modules.profile_matching;
+
+import jakarta.annotation.PreDestroy;
+import org.example.AuroraBot;
+import org.example.messaging.ProfileCardSender;
+import org.example.messaging.SendRateLimiter;
+import org.example.messaging.Templates;
+import org.example.models.UserInfo;
+import org.example.services.BlockedChatRegistry;
+import org.example.services.ProfileCardCache;
+import org.example.services.UserInfoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Рассылка уведомлений о подборе. Анкета каждого партнёра (фото, алиас, текст) готовится один раз за запуск,
+ * уведомления отправляются параллельно в пределах лимита Telegram API. Пользователей, заблокировавших бота,
+ * отмечает {@link org.example.services.BlockedChatRegistry} по ответу Telegram; им отправка не выполняется.
+ */
+@Component
+public class MatchDeliveryStage {
+    private static final Logger logger = LoggerFactory.getLogger(MatchDeliveryStage.class);
+
+    private final UserInfoService userInfoService;
+    private final ProfileMatchingResultService resultService;
+    private final AuroraBot auroraBot;
+    private final BlockedChatRegistry blockedChatRegistry;
+    private final ProfileCardCache profileCardCache;
+    private final SendRateLimiter rateLimiter;
+    private final ExecutorService executor;
+
+    @Autowired
+    public MatchDeliveryStage(UserInfoService userInfoService,
+                              ProfileMatchingResultService resultService,
+                              AuroraBot auroraBot,
+                              BlockedChatRegistry blockedChatRegistry,
+                              ProfileCardCache profileCardCache,
+                              SendRateLimiter rateLimiter,
+                              @Value("${aurora.matching.delivery-threads:8}") int deliveryThreads) {
+        this.userInfoService = userInfoService;
+        this.resultService = resultService;
+        this.auroraBot = auroraBot;
+        this.blockedChatRegistry = blockedChatRegistry;
+        this.profileCardCache = profileCardCache;
+        this.rateLimiter = rateLimiter;
+        this.executor = Executors.newFixedThreadPool(deliveryThreads);
+    }
+
+    public void deliver(List<MatchDelivery> deliveries) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Optional<PreparedProfile>> profiles = prefetchProfiles(deliveries);
+        Set<Long> failedRecipients = ConcurrentHashMap.newKeySet();
+        Set<Long> skippedRecipients = ConcurrentHashMap.newKeySet();
+
+        List<Future<?>> futures = new ArrayList<>(deliveries.size());
+        for (MatchDelivery delivery : deliveries) {
+            futures.add(executor.submit(() -> deliverOne(delivery, profiles, failedRecipients, skippedRecipients)));
+        }
+        awaitAll(futures);
+
+        if (!skippedRecipients.isEmpty()) {
+            logger.info("Skipped {} users who blocked the bot.", skippedRecipients.size());
+        }
+        if (!failedRecipients.isEmpty()) {
+            logger.warn("Failed to deliver profiles to {} users.", failedRecipients.size());
+        }
+    }
+
+    /**
+     * Отправляет одному получателю анкету партнёра сразу, без журнала доставки (повторный подбор).
+     */
+    public boolean deliverNow(Long recipientId, Long partnerId) {
+        try {
+            return prepareProfile(partnerId)
+                    .map(profile -> send(recipientId, profile))
+                    .orElse(false);
+        } catch (Exception e) {
+            logger.error("Error sending user profile to user: {}", recipientId, e);
+            return false;
+        }
+    }
+
+    private Map<Long, Optional<PreparedProfile>> prefetchProfiles(List<MatchDelivery> deliveries) {
+        Map<Long, Future<Optional<PreparedProfile>>> pending = new HashMap<>();
+        for (MatchDelivery delivery : deliveries) {
+            pending.computeIfAbsent(delivery.getPartnerUserId(), partnerId -> executor.submit(() -> prepareProfile(partnerId)));
+        }
+
+        Map<Long, Optional<PreparedProfile>> profiles = new HashMap<>(pending.size() * 2);
+        pending.forEach((partnerId, future) -> {
+            try {
+                profiles.put(partnerId, future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                profiles.put(partnerId, Optional.empty());
+            } catch (ExecutionException e) {
+                logger.error("Error preparing profile of user {}", partnerId, e.getCause());
+                profiles.put(partnerId, Optional.empty());
+            }
+        });
+        logger.info("Prepared {} partner profiles for {} deliveries.", profiles.size(), deliveries.size());
+        return profiles;
+    }
+
+    private Optional<PreparedProfile> prepareProfile(Long partnerId) {
+        return userInfoService.getUserInfoByUserId(partnerId).map(userInfo -> {
+            // GetUserProfilePhotos и GetChat расходуют тот же лимит Telegram API, что и отправка
+            rateLimiter.acquire();
+            String photoUrl = auroraBot.getUserPhotoUrl(partnerId);
+            String card = profileCardCache.getCard(userInfo, userId -> {
+                rateLimiter.acquire();
+                return auroraBot.getUserAlias(userId);
+            });
+            return new PreparedProfile(photoUrl, Templates.MATCH_NOTIFICATION.render(card));
+        });
+    }
+
+    private void deliverOne(MatchDelivery delivery, Map<Long, Optional<PreparedProfile>> profiles,
+                            Set<Long> failedRecipients, Set<Long> skippedRecipients) {
+        Long recipientId = delivery.getRecipientUserId();
+        boolean sent = false;
+        try {
+            Optional<PreparedProfile> profile = profiles.getOrDefault(delivery.getPartnerUserId(), Optional.empty());
+            if (blockedChatRegistry.isBlocked(recipientId)) {
+                skippedRecipients.add(recipientId);
+            } else if (profile.isEmpty()) {
+                logger.warn("Profile of user {} is not available, skipping delivery to {}.", delivery.getPartnerUserId(), recipientId);
+            } else {
+                sent = send(recipientId, profile.get());
+                if (!sent) {
+                    failedRecipients.add(recipientId);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error sending user profile to user: {}", recipientId, e);
+        }
+        resultService.markDelivery(delivery, sent);
+    }
+
+    private boolean send(Long recipientId, PreparedProfile profile) {
+        ProfileCardSender cardSender = auroraBot.getProfileCardSender();
+        rateLimiter.acquire(cardSender.requiredCalls(profile.photoUrl(), profile.message()));
+        return cardSender.send(recipientId, profile.photoUrl(), profile.message());
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdown();
+    }
+
+    private void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.error("Delivery task failed", e.getCause());
+            }
+        }
+    }
+
+    private record PreparedProfile(String photoUrl, String message) {
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.modules.profile_matching;
+
+import java.util.*;
+
+/**
+ * Жадное распределение пользователей по парам: пары рассматриваются в порядке убывания сходства,
+ * каждый пользователь попадает не более чем в одну пару.
+ */
+public class MatchPlanner {
+
+    public static MatchPlan plan(List<Long> userIds, List<TextSimilarity.SimilarityPair> pairs) {
+        Map<Long, Integer> indexByUserId = new HashMap<>(userIds.size() * 2);
+        for (int i = 0; i < userIds.size(); i++) {
+            indexByUserId.putIfAbsent(userIds.get(i), i);
+        }
+
+        boolean[] paired = new boolean[userIds.size()];
+        List<TextSimilarity.SimilarityPair> matchedPairs = new ArrayList<>();
+
+        for (TextSimilarity.SimilarityPair pair : pairs) {
+            if (pair.userId1() == null || pair.userId2() == null) {
+                continue;
+            }
+
+            Integer index1 = indexByUserId.get(pair.userId1());
+            Integer index2 = indexByUserId.get(pair.userId2());
+
+            if (index1 != null && index2 != null && !index1.equals(index2) && !paired[index1] && !paired[index2]) {
+                paired[index1] = true;
+                paired[index2] = true;
+                matchedPairs.add(pair);
+            }
+        }
+
+        List<Long> unpairedUserIds = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            if (!paired[i]) {
+                unpairedUserIds.add(userIds.get(i));
+            }
+        }
+
+        return new MatchPlan(matchedPairs, unpairedUserIds);
+    }
+
+    public record MatchPlan(List<TextSimilarity.SimilarityPair> matchedPairs, List<Long> unpairedUserIds) {
+    }
+}
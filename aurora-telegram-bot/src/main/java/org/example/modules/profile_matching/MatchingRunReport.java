@@ -0,0 +1,107 @@
+package org.example.modules.profile_matching;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Замеры одного запуска подбора: время каждой фазы, размеры выборок, пиковое потребление heap
+ * и распределение оценок сходства в итоговых парах.
+ */
+public class MatchingRunReport {
+
+    private final Map<String, Long> phaseDurations = new LinkedHashMap<>();
+    private final Map<String, Integer> counts = new LinkedHashMap<>();
+    private float[] scores = new float[0];
+
+    public MatchingRunReport() {
+        // Пиковые значения пулов памяти считаются от начала запуска
+        ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    public <T, E extends Exception> T time(String phase, Phase<T, E> action) throws E {
+        long start = System.nanoTime();
+        try {
+            return action.run();
+        } finally {
+            recordPhase(phase, start);
+        }
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos} (a {@link System#nanoTime()} value) for the given phase.
+     */
+    public void recordPhase(String phase, long startNanos) {
+        phaseDurations.merge(phase, (System.nanoTime() - startNanos) / 1_000_000, Long::sum);
+    }
+
+    public void count(String name, int value) {
+        counts.put(name, value);
+    }
+
+    public void recordScores(List<TextSimilarity.SimilarityPair> pairs) {
+        scores = new float[pairs.size()];
+        for (int i = 0; i < pairs.size(); i++) {
+            scores[i] = pairs.get(i).score();
+        }
+        Arrays.sort(scores);
+    }
+
+    public Map<String, Long> getPhaseDurations() {
+        return phaseDurations;
+    }
+
+    public Integer getCount(String name) {
+        return counts.get(name);
+    }
+
+    /**
+     * Returns the sum of peak usages of all heap memory pools since this report was created.
+     */
+    public long getPeakHeapBytes() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+
+    public Float percentileScore(double percentile) {
+        if (scores.length == 0) {
+            return null;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * scores.length) - 1;
+        return scores[Math.max(0, Math.min(index, scores.length - 1))];
+    }
+
+    public Float meanScore() {
+        if (scores.length == 0) {
+            return null;
+        }
+        double sum = 0;
+        for (float score : scores) {
+            sum += score;
+        }
+        return (float) (sum / scores.length);
+    }
+
+    public int zeroScoreCount() {
+        int zeros = 0;
+        for (float score : scores) {
+            if (score == 0.0f) {
+                zeros++;
+            }
+        }
+        return zeros;
+    }
+
+    @FunctionalInterface
+    public interface Phase<T, E extends Exception> {
+        T run() throws E;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Setter;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @Getter
@@ -31,5 +32,35 @@ public class ProfileMatchingResult {
 
     private String status;
 
+    // Сообщение исключения упавшего запуска: длина не ограничена, чтобы запись о сбое не падала сама
+    @Column(columnDefinition = "TEXT")
     private String errorMessage;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "matching_phase_duration", joinColumns = @JoinColumn(name = "result_id"))
+    @MapKeyColumn(name = "phase")
+    @Column(name = "duration_ms")
+    private Map<String, Long> phaseDurations;
+
+    private Integer totalUsers;
+
+    private Integer eligibleUsers;
+
+    private Integer candidatePairs;
+
+    private Integer matchedPairs;
+
+    private Long peakHeapBytes;
+
+    private Float minScore;
+
+    private Float medianScore;
+
+    private Float p90Score;
+
+    private Float maxScore;
+
+    private Float meanScore;
+
+    private Integer zeroScorePairs;
 }
@@ -3,6 +3,12 @@ package org.example.modules.profile_matching;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Optional;
+
 @Repository
 public interface ProfileMatchingResultRepository extends JpaRepository<ProfileMatchingResult, Long> {
+    Optional<ProfileMatchingResult> findFirstByStatusOrderByExecutionTimeDesc(String status);
+
+    Optional<ProfileMatchingResult> findFirstByStatusInOrderByExecutionTimeDesc(Collection<String> statuses);
 }
@@ -2,18 +2,68 @@ package org.example.modules.profile_matching;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ProfileMatchingResultService {
 
+    public static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+    public static final String STATUS_SUCCESS = "SUCCESS";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_DRY_RUN = "DRY_RUN";
+
     private final ProfileMatchingResultRepository repository;
+    private final MatchDeliveryRepository deliveryRepository;
 
     @Autowired
-    public ProfileMatchingResultService(ProfileMatchingResultRepository repository) {
+    public ProfileMatchingResultService(ProfileMatchingResultRepository repository, MatchDeliveryRepository deliveryRepository) {
         this.repository = repository;
+        this.deliveryRepository = deliveryRepository;
     }
 
     public void saveResult(ProfileMatchingResult result) {
         repository.save(result);
     }
+
+    /**
+     * Сохраняет план подбора вместе с журналом доставки одной транзакцией,
+     * чтобы после сбоя можно было дослать ровно те уведомления, которые не ушли.
+     */
+    @Transactional
+    public void savePlan(ProfileMatchingResult result, List<MatchDelivery> deliveries) {
+        repository.save(result);
+        deliveries.forEach(delivery -> delivery.setResultId(result.getId()));
+        deliveryRepository.saveAll(deliveries);
+    }
+
+    public Optional<ProfileMatchingResult> findUnfinishedResult() {
+        return repository.findFirstByStatusOrderByExecutionTimeDesc(STATUS_IN_PROGRESS);
+    }
+
+    /**
+     * Время последнего запуска подбора, после которого пользователям рассылались пары (пробные и упавшие не считаются).
+     */
+    public Optional<LocalDateTime> findLastDeliveredRunTime() {
+        return repository.findFirstByStatusInOrderByExecutionTimeDesc(List.of(STATUS_IN_PROGRESS, STATUS_SUCCESS))
+                .map(ProfileMatchingResult::getExecutionTime);
+    }
+
+    public List<MatchDelivery> getPendingDeliveries(Long resultId) {
+        return deliveryRepository.findByResultIdAndStatusOrderByIdAsc(resultId, MatchDelivery.DeliveryStatus.PENDING);
+    }
+
+    public void markDelivery(MatchDelivery delivery, boolean sent) {
+        delivery.setStatus(sent ? MatchDelivery.DeliveryStatus.SENT : MatchDelivery.DeliveryStatus.FAILED);
+        delivery.setDeliveredAt(LocalDateTime.now());
+        deliveryRepository.save(delivery);
+    }
+
+    @Transactional
+    public void completeResult(Long resultId, String status) {
+        repository.findById(resultId).ifPresent(result -> result.setStatus(status));
+    }
 }
@@ -1,10 +1,12 @@
 package org.example.modules.profile_matching;
 
-import org.example.models.UserInfo;
-import org.example.AuroraBot;
+import org.example.metrics.BotMetrics;
+import org.example.models.projections.MatchingProfile;
 import org.example.services.UserInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
@@ -13,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.example.modules.profile_matching.TextSimilarity.processUserInfos;
 
@@ -21,8 +24,10 @@ public class ProfileMatchingTask {
 
     private final UserInfoService userInfoService;
     private final ProfileMatchingResultService resultService;
-    private final AuroraBot auroraBot;
+    private final MatchDeliveryStage deliveryStage;
+    private final BotMetrics botMetrics;
     private final Logger logger = LoggerFactory.getLogger(ProfileMatchingTask.class);
+    private final AtomicBoolean running = new AtomicBoolean(false);
 
     @Value("${special.user.id}")
     private Long specialUserId;
@@ -30,183 +35,217 @@ public class ProfileMatchingTask {
     private boolean isRandomMatchingEnabled = false; // Флаг для включения случайного распределения
 
     @Autowired
-    public ProfileMatchingTask(UserInfoService userInfoService, ProfileMatchingResultService resultService, AuroraBot auroraBot) {
+    public ProfileMatchingTask(UserInfoService userInfoService, ProfileMatchingResultService resultService, MatchDeliveryStage deliveryStage, BotMetrics botMetrics) {
         this.userInfoService = userInfoService;
         this.resultService = resultService;
-        this.auroraBot = auroraBot;
+        this.deliveryStage = deliveryStage;
+        this.botMetrics = botMetrics;
     }
 
     @Scheduled(cron = "0 0 11 ? * MON") // Runs every Monday at 11:00 AM
     public void sendMatchedProfiles() {
-        ProfileMatchingResult result = new ProfileMatchingResult();
-        result.setExecutionTime(LocalDateTime.now());
-        result.setMatchedUsers(new ArrayList<>());
-        result.setUnpairedUsers(new ArrayList<>());
-        result.setStatus("SUCCESS");
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Profile matching is already running, skipping this invocation.");
+            return;
+        }
 
         try {
-            // Получаем всех пользователей
-            List<UserInfo> allUsers = userInfoService.getAllUsers();
-            logger.info("Total users before filtering: {}", allUsers.size());
-
-            // Фильтрация пользователей
-            List<UserInfo> activeUsers = filterActiveUsers(allUsers);
-
-            List<TextSimilarity.SimilarityPair> pairs;
-            if (isRandomMatchingEnabled) {
-                // Случайное распределение пользователей по парам
-                pairs = getRandomPairs(activeUsers);
-                logger.info("Randomly assigned pairs: {}", pairs);
-            } else {
-                // Нормальный ход работы через processUserInfos
-                pairs = processUserInfos(activeUsers.toArray(new UserInfo[0]));
-                logger.info("Similarity pairs: {}", pairs);
-            }
-
-            boolean[] paired = new boolean[activeUsers.size()];
-
-            pairs.forEach(pair -> {
-                try {
-                    handlePair(activeUsers, paired, pair);
-                    result.getMatchedUsers().add(pair.userId1() + " <-> " + pair.userId2());
-                } catch (Exception e) {
-                    logger.error("Error handling pair: {} <-> {}", pair.userId1(), pair.userId2(), e);
+            botMetrics.timeTask("profile_matching", () -> {
+                // Незавершённый план (процесс упал во время рассылки) досылается вместо нового подбора
+                Optional<ProfileMatchingResult> unfinished = resultService.findUnfinishedResult();
+                if (unfinished.isPresent()) {
+                    logger.info("Resuming delivery of unfinished matching plan {}.", unfinished.get().getId());
+                    deliverPlan(unfinished.get());
+                    return;
                 }
-            });
 
-            handleUnpaired(activeUsers, paired, result);
-        } catch (IOException | org.apache.lucene.queryparser.classic.ParseException e) {
-            logger.error("Error processing text similarity: ", e);
-            result.setStatus("FAILED");
-            result.setErrorMessage(e.getMessage());
+                createPlan().ifPresent(this::deliverPlan);
+            });
         } finally {
-            resultService.saveResult(result);
-            logger.info("User profiles sent based on similarity pairs.");
+            running.set(false);
         }
     }
 
-    // Метод для случайного распределения
-    private List<TextSimilarity.SimilarityPair> getRandomPairs(List<UserInfo> users) {
-        List<TextSimilarity.SimilarityPair> pairs = new ArrayList<>();
-        List<UserInfo> shuffledUsers = new ArrayList<>(users);
-        Collections.shuffle(shuffledUsers, new Random());
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedPlan() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
 
-        for (int i = 0; i < shuffledUsers.size() - 1; i += 2) {
-            pairs.add(new TextSimilarity.SimilarityPair(shuffledUsers.get(i).getUserId(), shuffledUsers.get(i + 1).getUserId(), 0.0f));
+        try {
+            resultService.findUnfinishedResult().ifPresent(result -> {
+                logger.info("Found unfinished matching plan {} on startup, resuming delivery.", result.getId());
+                deliverPlan(result);
+            });
+        } finally {
+            running.set(false);
         }
+    }
 
-        if (shuffledUsers.size() % 2 != 0) {
-            pairs.add(new TextSimilarity.SimilarityPair(shuffledUsers.get(shuffledUsers.size() - 1).getUserId(), specialUserId, 0.0f));
+    /**
+     * Выполняет все фазы подбора (загрузка, фильтрация, индексация, оценка, распределение по парам)
+     * без рассылки и сохраняет отчёт о запуске.
+     *
+     * @return сохранённый отчёт или пустой Optional, если подбор уже выполняется
+     */
+    public Optional<ProfileMatchingResult> previewMatching() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Profile matching is already running, skipping dry run.");
+            return Optional.empty();
         }
 
-        return pairs;
+        try {
+            ProfileMatchingResult result = newResult(ProfileMatchingResultService.STATUS_DRY_RUN);
+            MatchingRunReport report = new MatchingRunReport();
+            try {
+                MatchPlanner.MatchPlan plan = computePlan(report);
+                planDeliveries(plan, result);
+            } catch (IOException | org.apache.lucene.queryparser.classic.ParseException e) {
+                logger.error("Error processing text similarity during dry run: ", e);
+                result.setErrorMessage(e.getMessage());
+            }
+            applyReport(result, report);
+            resultService.saveResult(result);
+            logger.info("Matching dry run {} completed: {}", result.getId(), report.getPhaseDurations());
+            return Optional.of(result);
+        } finally {
+            running.set(false);
+        }
     }
 
-    // Метод фильтрации активных пользователей
-    private List<UserInfo> filterActiveUsers(List<UserInfo> allUsers) {
-        List<UserInfo> validUserIds = allUsers.stream()
-                .filter(user -> user.getUserId() != null)
-                .toList();
+    private Optional<ProfileMatchingResult> createPlan() {
+        ProfileMatchingResult result = newResult(ProfileMatchingResultService.STATUS_IN_PROGRESS);
+        MatchingRunReport report = new MatchingRunReport();
 
-        List<UserInfo> visibleUsers = validUserIds.stream()
-                .filter(user -> Boolean.TRUE.equals(user.getIsVisible()))
-                .toList();
+        try {
+            MatchPlanner.MatchPlan plan = computePlan(report);
+            List<MatchDelivery> deliveries = planDeliveries(plan, result);
+            applyReport(result, report);
 
-        return visibleUsers.stream()
-                .filter(user -> Boolean.FALSE.equals(user.getIsBotBlocked()) && Boolean.FALSE.equals(user.getIsBanned()))
-                .toList();
+            resultService.savePlan(result, deliveries);
+            logger.info("Matching plan {} saved with {} deliveries.", result.getId(), deliveries.size());
+            return Optional.of(result);
+        } catch (IOException | org.apache.lucene.queryparser.classic.ParseException e) {
+            logger.error("Error processing text similarity: ", e);
+            result.setStatus(ProfileMatchingResultService.STATUS_FAILED);
+            result.setErrorMessage(e.getMessage());
+            applyReport(result, report);
+            resultService.saveResult(result);
+            return Optional.empty();
+        }
     }
 
-    private void handlePair(List<UserInfo> users, boolean[] paired, TextSimilarity.SimilarityPair pair) {
-        Long userId1 = pair.userId1();
-        Long userId2 = pair.userId2();
+    private ProfileMatchingResult newResult(String status) {
+        ProfileMatchingResult result = new ProfileMatchingResult();
+        result.setExecutionTime(LocalDateTime.now());
+        result.setMatchedUsers(new ArrayList<>());
+        result.setUnpairedUsers(new ArrayList<>());
+        result.setStatus(status);
+        return result;
+    }
 
-        if (userId1 == null || userId2 == null) {
-            logger.error("Skipping pair due to null userId: userId1 = {}, userId2 = {}", userId1, userId2);
-            return;  // Пропускаем пару, если один из пользователей имеет null userId
+    private MatchPlanner.MatchPlan computePlan(MatchingRunReport report) throws IOException, org.apache.lucene.queryparser.classic.ParseException {
+        // Получаем пользователей, участвующих в подборе (фильтр выполняется в базе данных)
+        int totalUsers = (int) userInfoService.countUsers();
+        List<MatchingProfile> eligibleUsers = report.time("load",
+                () -> userInfoService.streamMatchingProfiles().toList());
+        logger.info("Total users: {}, loaded for matching: {}", totalUsers, eligibleUsers.size());
+        report.count("totalUsers", totalUsers);
+
+        // Фильтрация пользователей
+        List<MatchingProfile> activeUsers = report.time("filter", () -> filterActiveUsers(eligibleUsers));
+        report.count("eligibleUsers", activeUsers.size());
+
+        List<TextSimilarity.SimilarityPair> pairs;
+        if (isRandomMatchingEnabled) {
+            // Случайное распределение пользователей по парам
+            pairs = report.time("score", () -> getRandomPairs(activeUsers));
+            logger.info("Randomly assigned pairs: {}", pairs);
+        } else {
+            // Нормальный ход работы через processUserInfos
+            long scoreStart = System.nanoTime();
+            pairs = processUserInfos(activeUsers.toArray(new MatchingProfile[0]), report);
+            report.recordPhase("score", scoreStart);
+            logger.info("Similarity pairs: {}", pairs);
         }
+        report.count("candidatePairs", pairs.size());
 
-        int index1 = findIndexByUserId(users, userId1);
-        int index2 = findIndexByUserId(users, userId2);
+        List<Long> activeUserIds = activeUsers.stream().map(MatchingProfile::userId).toList();
+        MatchPlanner.MatchPlan plan = report.time("pair", () -> MatchPlanner.plan(activeUserIds, pairs));
+        report.count("matchedPairs", plan.matchedPairs().size());
+        report.recordScores(plan.matchedPairs());
+        return plan;
+    }
+
+    private void applyReport(ProfileMatchingResult result, MatchingRunReport report) {
+        result.setPhaseDurations(new LinkedHashMap<>(report.getPhaseDurations()));
+        result.setTotalUsers(report.getCount("totalUsers"));
+        result.setEligibleUsers(report.getCount("eligibleUsers"));
+        result.setCandidatePairs(report.getCount("candidatePairs"));
+        result.setMatchedPairs(report.getCount("matchedPairs"));
+        result.setPeakHeapBytes(report.getPeakHeapBytes());
+        result.setMinScore(report.percentileScore(0));
+        result.setMedianScore(report.percentileScore(50));
+        result.setP90Score(report.percentileScore(90));
+        result.setMaxScore(report.percentileScore(100));
+        result.setMeanScore(report.meanScore());
+        result.setZeroScorePairs(report.zeroScoreCount());
+    }
 
-        if (index1 != -1 && index2 != -1 && !paired[index1] && !paired[index2]) {
-            sendUserProfile(users.get(index1).getUserId(), users.get(index2));
-            sendUserProfile(users.get(index2).getUserId(), users.get(index1));
+    private List<MatchDelivery> planDeliveries(MatchPlanner.MatchPlan plan, ProfileMatchingResult result) {
+        List<MatchDelivery> deliveries = new ArrayList<>();
 
-            paired[index1] = true;
-            paired[index2] = true;
+        for (TextSimilarity.SimilarityPair pair : plan.matchedPairs()) {
+            deliveries.add(new MatchDelivery(pair.userId1(), pair.userId2()));
+            deliveries.add(new MatchDelivery(pair.userId2(), pair.userId1()));
+            result.getMatchedUsers().add(pair.userId1() + " <-> " + pair.userId2());
         }
-    }
 
-    private void handleUnpaired(List<UserInfo> users, boolean[] paired, ProfileMatchingResult result) {
-        for (int i = 0; i < users.size(); i++) {
-            if (!paired[i]) {
-                UserInfo unpairedUser = users.get(i);
+        // Оставшаяся без пары анкета соединяется с администратором
+        plan.unpairedUserIds().stream().findFirst().ifPresent(unpairedUserId -> {
+            deliveries.add(new MatchDelivery(specialUserId, unpairedUserId));
+            if (userInfoService.getUserInfoByUserId(specialUserId).isPresent()) {
+                deliveries.add(new MatchDelivery(unpairedUserId, specialUserId));
+            }
+            result.getUnpairedUsers().add(unpairedUserId);
+        });
 
-                if (unpairedUser == null || unpairedUser.getUserId() == null) {
-                    logger.error("Skipping unpaired user due to null user or userId: user = {}, userId = {}", unpairedUser, unpairedUser != null ? unpairedUser.getUserId() : "null");
-                    continue;  // Пропускаем, если пользователь или его userId равны null
-                }
+        return deliveries;
+    }
 
-                try {
-                    sendUserProfile(specialUserId, unpairedUser);
+    private void deliverPlan(ProfileMatchingResult result) {
+        List<MatchDelivery> pending = resultService.getPendingDeliveries(result.getId());
+        logger.info("Delivering {} pending notifications of matching plan {}.", pending.size(), result.getId());
 
-                    Optional<UserInfo> specialUserInfo = userInfoService.getUserInfoByUserId(specialUserId);
-                    specialUserInfo.ifPresent(info -> sendUserProfile(unpairedUser.getUserId(), info));
+        deliveryStage.deliver(pending);
 
-                    result.getUnpairedUsers().add(unpairedUser.getUserId());
-                    logger.info("Unpaired profile sent to special chat ID.");
-                } catch (Exception e) {
-                    logger.error("Error sending unpaired profile to user: {}", unpairedUser.getUserId(), e);
-                }
-                break;
-            }
-        }
+        resultService.completeResult(result.getId(), ProfileMatchingResultService.STATUS_SUCCESS);
+        logger.info("User profiles sent based on similarity pairs.");
     }
 
-    private int findIndexByUserId(List<UserInfo> users, Long userId) {
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getUserId().equals(userId)) {
-                return i;
-            }
+    // Метод для случайного распределения
+    private List<TextSimilarity.SimilarityPair> getRandomPairs(List<MatchingProfile> users) {
+        List<TextSimilarity.SimilarityPair> pairs = new ArrayList<>();
+        List<MatchingProfile> shuffledUsers = new ArrayList<>(users);
+        Collections.shuffle(shuffledUsers, new Random());
+
+        for (int i = 0; i < shuffledUsers.size() - 1; i += 2) {
+            pairs.add(new TextSimilarity.SimilarityPair(shuffledUsers.get(i).userId(), shuffledUsers.get(i + 1).userId(), 0.0f));
         }
-        return -1;
-    }
 
-    private void sendUserProfile(Long userId, UserInfo userInfo) {
-        try {
-            String photoUrl = auroraBot.getUserPhotoUrl(userInfo.getUserId());
-            String userAlias = auroraBot.getUserAlias(userInfo.getUserId());
-            boolean isAliasValid = userAlias != null && !userAlias.equals("@null");
-
-            String contactInfo = isAliasValid ? userAlias :
-                    String.format("<a href=\"tg://user?id=%d\">Профиль пользователя</a>", userId);
-
-            String profileMessage = String.format(
-                    """
-                            Привет! 👋
-                            Ваш собеседник на эту неделю:
-                            %s
-                            Рекомендуем не откладывать и договориться о встрече сразу. Также рекомендуем первый раз встретиться на территории университета 💻
-                                
-                            Появятся вопросы — пишите в /support 😉""",
-                    userInfoService.formatUserProfile(userInfo, contactInfo)
-            );
-
-            boolean photoSent = true;
-            if (photoUrl != null) {
-                photoSent = auroraBot.sendPhotoMessage(userId, photoUrl);
-            }
+        if (shuffledUsers.size() % 2 != 0) {
+            pairs.add(new TextSimilarity.SimilarityPair(shuffledUsers.get(shuffledUsers.size() - 1).userId(), specialUserId, 0.0f));
+        }
 
-            boolean textSent = auroraBot.sendTextMessage(userId, profileMessage);
+        return pairs;
+    }
 
-            if (!photoSent || !textSent) {
-                logger.warn("Failed to send profile to user {}. Marking user as potentially blocked.", userId);
-                userInfo.setIsBotBlocked(true);
-                userInfoService.saveUserInfo(userInfo);
-            }
-        } catch (Exception e) {
-            logger.error("Error sending user profile to user: {}", userId, e);
-        }
+    // Метод фильтрации активных пользователей: видимость, бан и блокировка бота уже проверены запросом,
+    // здесь отбрасываются только анкеты без user id и повторы одного пользователя
+    private List<MatchingProfile> filterActiveUsers(List<MatchingProfile> allUsers) {
+        Set<Long> seenUserIds = new HashSet<>();
+        return allUsers.stream()
+                .filter(user -> user.userId() != null && seenUserIds.add(user.userId()))
+                .toList();
     }
 }
@@ -0,0 +1,38 @@
+package org.example.modules.profile_matching;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Собеседник, подобранный пользователю вне еженедельного подбора. На каждую пару — две строки,
+ * по одной для каждого участника; {@code requesterUserId} — кто запросил подбор.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "rematch_reservation")
+public class RematchReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate weekStart;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long partnerUserId;
+
+    @Column(nullable = false)
+    private Long requesterUserId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
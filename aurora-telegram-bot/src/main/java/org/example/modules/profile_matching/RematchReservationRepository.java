@@ -0,0 +1,34 @@
+package org.example.modules.profile_matching;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public interface RematchReservationRepository extends JpaRepository<RematchReservation, Long> {
+
+    boolean existsByWeekStartAndUserId(LocalDate weekStart, Long userId);
+
+    @Query("SELECT r.userId FROM RematchReservation r WHERE r.weekStart = :weekStart")
+    List<Long> findReservedUserIds(LocalDate weekStart);
+
+    // Все, с кем пользователя уже знакомили: еженедельные подборы и повторные подборы
+    @Query(value = "SELECT partner_user_id FROM match_delivery WHERE recipient_user_id = :userId " +
+            "UNION SELECT partner_user_id FROM rematch_reservation WHERE user_id = :userId", nativeQuery = true)
+    Set<Long> findPartnerHistory(Long userId);
+
+    // Обе строки пары вставляются одним оператором: если любой из участников уже занят на этой неделе,
+    // нарушение уникального индекса откатывает вставку целиком
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO rematch_reservation (week_start, user_id, partner_user_id, requester_user_id, created_at) " +
+            "VALUES (:weekStart, :requesterId, :partnerId, :requesterId, now()), " +
+            "(:weekStart, :partnerId, :requesterId, :requesterId, now())", nativeQuery = true)
+    int reservePair(LocalDate weekStart, Long requesterId, Long partnerId);
+}
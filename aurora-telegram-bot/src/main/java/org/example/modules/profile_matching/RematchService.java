@@ -0,0 +1,133 @@
+package org.example.modules.profile_matching;
+
+import org.example.models.UserInfo;
+import org.example.modules.search.SearchIndex;
+import org.example.services.BlockedChatRegistry;
+import org.example.services.UserInfoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Подбор нового собеседника одному пользователю без запуска {@link ProfileMatchingTask}: кандидаты берутся
+ * из живого индекса {@link SearchIndex} по сходству анкет, без тех, с кем пользователя уже знакомили,
+ * и без тех, кто уже получил повторный подбор на этой неделе. Пара резервируется в {@code rematch_reservation}.
+ * <p>
+ * Неделя отсчитывается от последнего запуска {@link ProfileMatchingTask} (столбец {@code week_start} — дата запуска),
+ * а не от полуночи понедельника: иначе повторный подбор утром в понедельник расходовал бы лимит новой недели
+ * ещё до того, как пользователь получил её основную пару.
+ */
+@Service
+public class RematchService {
+    private static final Logger logger = LoggerFactory.getLogger(RematchService.class);
+
+    private static final int CANDIDATES = 20;
+
+    // Время еженедельного запуска подбора, см. расписание ProfileMatchingTask; используется, пока запусков не было
+    private static final LocalTime WEEKLY_RUN_TIME = LocalTime.of(11, 0);
+
+    private final UserInfoService userInfoService;
+    private final SearchIndex searchIndex;
+    private final RematchReservationRepository reservationRepository;
+    private final BlockedChatRegistry blockedChatRegistry;
+    private final MatchDeliveryStage deliveryStage;
+    private final ProfileMatchingResultService resultService;
+
+    @Value("${special.user.id}")
+    private Long specialUserId;
+
+    @Autowired
+    public RematchService(UserInfoService userInfoService,
+                          SearchIndex searchIndex,
+                          RematchReservationRepository reservationRepository,
+                          BlockedChatRegistry blockedChatRegistry,
+                          MatchDeliveryStage deliveryStage,
+                          ProfileMatchingResultService resultService) {
+        this.userInfoService = userInfoService;
+        this.searchIndex = searchIndex;
+        this.reservationRepository = reservationRepository;
+        this.blockedChatRegistry = blockedChatRegistry;
+        this.deliveryStage = deliveryStage;
+        this.resultService = resultService;
+    }
+
+    public RematchResult rematch(Long userId) {
+        long start = System.nanoTime();
+
+        Optional<UserInfo> userInfo = userInfoService.getUserInfoByUserId(userId);
+        if (userInfo.isEmpty() || !Boolean.TRUE.equals(userInfo.get().getIsVisible()) || Boolean.TRUE.equals(userInfo.get().getIsBanned())) {
+            return RematchResult.of(RematchResult.Status.NOT_ELIGIBLE);
+        }
+
+        LocalDate weekStart = currentWeekStart();
+        if (reservationRepository.existsByWeekStartAndUserId(weekStart, userId)) {
+            return RematchResult.of(RematchResult.Status.ALREADY_REMATCHED);
+        }
+
+        Set<Long> excluded = new HashSet<>(reservationRepository.findPartnerHistory(userId));
+        excluded.addAll(reservationRepository.findReservedUserIds(weekStart));
+        excluded.add(specialUserId);
+        List<Long> candidates = searchIndex.findSimilarProfiles(userId, excluded, CANDIDATES);
+
+        for (Long candidate : candidates) {
+            if (blockedChatRegistry.isBlocked(candidate)) {
+                continue;
+            }
+            try {
+                reservationRepository.reservePair(weekStart, userId, candidate);
+            } catch (DataIntegrityViolationException e) {
+                // Кандидата только что занял другой запрос — или этот же пользователь прислал команду дважды
+                if (reservationRepository.existsByWeekStartAndUserId(weekStart, userId)) {
+                    return RematchResult.of(RematchResult.Status.ALREADY_REMATCHED);
+                }
+                continue;
+            }
+
+            logger.info("Rematched user {} with {} in {} ms ({} candidates).",
+                    userId, candidate, (System.nanoTime() - start) / 1_000_000, candidates.size());
+            deliveryStage.deliverNow(userId, candidate);
+            deliveryStage.deliverNow(candidate, userId);
+            return new RematchResult(RematchResult.Status.MATCHED, candidate);
+        }
+
+        logger.info("No rematch candidates for user {} ({} excluded, {} ms).",
+                userId, excluded.size(), (System.nanoTime() - start) / 1_000_000);
+        return RematchResult.of(RematchResult.Status.NO_CANDIDATES);
+    }
+
+    private LocalDate currentWeekStart() {
+        return resultService.findLastDeliveredRunTime()
+                .map(LocalDateTime::toLocalDate)
+                .orElseGet(() -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    LocalDateTime monday = now.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atTime(WEEKLY_RUN_TIME);
+                    return (now.isBefore(monday) ? monday.minusWeeks(1) : monday).toLocalDate();
+                });
+    }
+
+    public record RematchResult(Status status, Long partnerUserId) {
+        static RematchResult of(Status status) {
+            return new RematchResult(status, null);
+        }
+
+        public enum Status {
+            MATCHED,
+            NOT_ELIGIBLE,
+            ALREADY_REMATCHED,
+            NO_CANDIDATES
+        }
+    }
+}
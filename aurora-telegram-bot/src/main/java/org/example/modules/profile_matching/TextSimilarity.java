@@ -17,7 +17,8 @@ import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.RAMDirectory;
-import org.example.models.UserInfo;
+import org.example.metrics.MatchingPhaseEvent;
+import org.example.models.projections.MatchingProfile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,42 +29,65 @@ public class TextSimilarity {
 
     private static final Logger logger = LoggerFactory.getLogger(TextSimilarity.class);
 
-    public static List<SimilarityPair> processUserInfos(UserInfo[] userInfos) throws IOException, ParseException {
+    public static List<SimilarityPair> processUserInfos(MatchingProfile[] userInfos) throws IOException, ParseException {
+        return processUserInfos(userInfos, new MatchingRunReport());
+    }
+
+    public static List<SimilarityPair> processUserInfos(MatchingProfile[] userInfos, MatchingRunReport report) throws IOException, ParseException {
         logger.info("Starting processUserInfos with {} users", userInfos.length);
 
         try (Directory directory = new RAMDirectory(); Analyzer analyzer = new StandardAnalyzer()) {
             IndexWriterConfig config = new IndexWriterConfig(analyzer);
-            try (IndexWriter writer = new IndexWriter(directory, config)) {
-                indexDocuments(userInfos, writer);
-            }
+            MatchingPhaseEvent indexEvent = MatchingPhaseEvent.start("index", userInfos.length);
+            report.time("index", () -> {
+                try (IndexWriter writer = new IndexWriter(directory, config)) {
+                    indexDocuments(userInfos, writer);
+                }
+                return null;
+            });
+            indexEvent.finish(0);
 
             try (IndexReader reader = DirectoryReader.open(directory)) {
+                MatchingPhaseEvent searchEvent = MatchingPhaseEvent.start("search", reader.numDocs());
+                long searchStart = System.nanoTime();
                 List<SimilarityPair> similarities = findSimilarities(userInfos, analyzer, reader);
+                report.recordPhase("search", searchStart);
+                searchEvent.finish(similarities.size());
+
+                MatchingPhaseEvent sortEvent = MatchingPhaseEvent.start("sort", userInfos.length);
+                report.time("sort", () -> {
+                    similarities.sort(Comparator.comparingDouble(SimilarityPair::score).reversed());
+                    return null;
+                });
+                sortEvent.finish(similarities.size());
                 logger.info("Found {} similarity pairs", similarities.size());
+                report.count("similarityPairs", similarities.size());
 
                 // Post-process to pair users without a match
-                List<SimilarityPair> finalPairs = postProcessPairs(userInfos, similarities);
+                MatchingPhaseEvent postProcessEvent = MatchingPhaseEvent.start("post-process", userInfos.length);
+                List<SimilarityPair> finalPairs = report.time("post-process", () -> postProcessPairs(userInfos, similarities));
+                postProcessEvent.finish(finalPairs.size());
                 logger.info("Final number of pairs: {}", finalPairs.size());
                 return finalPairs;
             }
         }
     }
 
-    private static void indexDocuments(UserInfo[] userInfos, IndexWriter writer) throws IOException {
+    private static void indexDocuments(MatchingProfile[] userInfos, IndexWriter writer) throws IOException {
         logger.info("Indexing documents...");
-        for (UserInfo userInfo : userInfos) {
+        for (MatchingProfile userInfo : userInfos) {
             Document doc = new Document();
             String content =
-                    "Интересы: " + userInfo.getDiscussionTopic() + "\n" +
-                    "Фан-факт: " + userInfo.getFunFact();
+                    "Интересы: " + userInfo.discussionTopic() + "\n" +
+                    "Фан-факт: " + userInfo.funFact();
             doc.add(new TextField("content", content, Field.Store.YES));
             writer.addDocument(doc);
-            logger.debug("Indexed document for user: {}", userInfo.getUserId());
+            logger.debug("Indexed document for user: {}", userInfo.userId());
         }
         logger.info("Indexing completed.");
     }
 
-    private static List<SimilarityPair> findSimilarities(UserInfo[] userInfos, Analyzer analyzer, IndexReader reader) throws IOException, ParseException {
+    private static List<SimilarityPair> findSimilarities(MatchingProfile[] userInfos, Analyzer analyzer, IndexReader reader) throws IOException, ParseException {
         IndexSearcher searcher = new IndexSearcher(reader);
         List<SimilarityPair> similarityPairs = new ArrayList<>();
 
@@ -76,18 +100,17 @@ public class TextSimilarity {
 
             for (ScoreDoc scoreDoc : results.scoreDocs) {
                 if (scoreDoc.doc != i) {
-                    similarityPairs.add(new SimilarityPair(userInfos[i].getUserId(), userInfos[scoreDoc.doc].getUserId(), scoreDoc.score));
-                    logger.debug("Similarity found: {} <-> {} with score {}", userInfos[i].getUserId(), userInfos[scoreDoc.doc].getUserId(), scoreDoc.score);
+                    similarityPairs.add(new SimilarityPair(userInfos[i].userId(), userInfos[scoreDoc.doc].userId(), scoreDoc.score));
+                    logger.debug("Similarity found: {} <-> {} with score {}", userInfos[i].userId(), userInfos[scoreDoc.doc].userId(), scoreDoc.score);
                 }
             }
         }
 
-        similarityPairs.sort(Comparator.comparingDouble(SimilarityPair::score).reversed());
         logger.info("Similarity finding completed.");
         return similarityPairs;
     }
 
-    private static List<SimilarityPair> postProcessPairs(UserInfo[] userInfos, List<SimilarityPair> similarityPairs) {
+    private static List<SimilarityPair> postProcessPairs(MatchingProfile[] userInfos, List<SimilarityPair> similarityPairs) {
         Set<Long> pairedUsers = new HashSet<>();
         List<SimilarityPair> finalPairs = new ArrayList<>(similarityPairs);
 
@@ -96,22 +119,22 @@ public class TextSimilarity {
             pairedUsers.add(pair.userId2());
         }
 
-        List<UserInfo> unpairedUsers = new ArrayList<>();
-        for (UserInfo userInfo : userInfos) {
-            if (!pairedUsers.contains(userInfo.getUserId())) {
+        List<MatchingProfile> unpairedUsers = new ArrayList<>();
+        for (MatchingProfile userInfo : userInfos) {
+            if (!pairedUsers.contains(userInfo.userId())) {
                 unpairedUsers.add(userInfo);
             }
         }
 
         Collections.shuffle(unpairedUsers);
         for (int i = 0; i < unpairedUsers.size() - 1; i += 2) {
-            finalPairs.add(new SimilarityPair(unpairedUsers.get(i).getUserId(), unpairedUsers.get(i + 1).getUserId(), 0.0f));
-            logger.debug("Randomly paired unpaired users: {} <-> {}", unpairedUsers.get(i).getUserId(), unpairedUsers.get(i + 1).getUserId());
+            finalPairs.add(new SimilarityPair(unpairedUsers.get(i).userId(), unpairedUsers.get(i + 1).userId(), 0.0f));
+            logger.debug("Randomly paired unpaired users: {} <-> {}", unpairedUsers.get(i).userId(), unpairedUsers.get(i + 1).userId());
         }
 
         // If there's an odd user out, they remain unpaired
         if (unpairedUsers.size() % 2 != 0) {
-            logger.warn("User {} remains unpaired.", unpairedUsers.get(unpairedUsers.size() - 1).getUserId());
+            logger.warn("User {} remains unpaired.", unpairedUsers.get(unpairedUsers.size() - 1).userId());
         }
 
         return finalPairs;
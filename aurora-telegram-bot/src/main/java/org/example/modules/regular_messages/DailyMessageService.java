@@ -1,7 +1,10 @@
 package org.example.modules.regular_messages;
 
+import org.example.modules.outbox.OutboxService;
+import org.example.services.UserInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,10 +13,31 @@ import java.util.Optional;
 public class DailyMessageService {
 
     private final DailyMessageRepository dailyMessageRepository;
+    private final UserInfoService userInfoService;
+    private final OutboxService outboxService;
 
     @Autowired
-    public DailyMessageService(DailyMessageRepository dailyMessageRepository) {
+    public DailyMessageService(DailyMessageRepository dailyMessageRepository, UserInfoService userInfoService, OutboxService outboxService) {
         this.dailyMessageRepository = dailyMessageRepository;
+        this.userInfoService = userInfoService;
+        this.outboxService = outboxService;
+    }
+
+    /**
+     * Ставит сообщение в очередь отправки всем получателям и отмечает его отправленным в одной транзакции:
+     * либо очередь заполнена и сообщение отмечено, либо не произошло ничего и задача повторит попытку.
+     *
+     * @return количество поставленных в очередь сообщений
+     */
+    @Transactional
+    public int enqueueForAllRecipients(DailyMessage dailyMessage) {
+        List<OutboxService.Entry> entries = userInfoService.streamRecipients()
+                .map(user -> OutboxService.Entry.text("daily:" + dailyMessage.getId() + ":" + user.userId(), user.userId(), dailyMessage.getText()))
+                .toList();
+        int enqueued = outboxService.enqueueAll(entries);
+        dailyMessage.setSent(true);
+        dailyMessageRepository.save(dailyMessage);
+        return enqueued;
     }
 
     public Optional<DailyMessage> getUnsentDailyMessage() {
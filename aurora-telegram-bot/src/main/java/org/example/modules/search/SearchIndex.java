@@ -0,0 +1,311 @@
+package org.example.modules.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.example.interfaces.UserInfoChangeListener;
+import org.example.models.SupportRequest;
+import org.example.models.UserInfo;
+import org.example.models.projections.ProfileFlags;
+import org.example.repositories.SupportRequestRepository;
+import org.example.repositories.UserInfoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Полнотекстовый индекс в памяти по анкетам и обращениям в поддержку. Строится при старте постраничным чтением
+ * из базы и дальше обновляется точечно: анкеты — через {@link UserInfoChangeListener}, обращения — при сохранении
+ * в {@link org.example.services.SupportRequestService}. Поиск идёт через {@link SearcherManager}, который после
+ * каждой записи переоткрывает near-real-time читатель, так что изменения видны сразу без коммитов.
+ */
+@Component
+public class SearchIndex implements UserInfoChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    static final String FIELD_KEY = "key";
+    static final String FIELD_TYPE = "type";
+    static final String FIELD_USER_ID = "userId";
+    static final String FIELD_REQUEST_ID = "requestId";
+    static final String FIELD_NAME = "name";
+    static final String FIELD_CONTENT = "content";
+    // 1 — анкета участвует в подборе (видима, не забанена, бот не заблокирован)
+    static final String FIELD_ELIGIBLE = "eligible";
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final UserInfoRepository userInfoRepository;
+    private final SupportRequestRepository supportRequestRepository;
+
+    private final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @Autowired
+    public SearchIndex(UserInfoRepository userInfoRepository, SupportRequestRepository supportRequestRepository) {
+        this.userInfoRepository = userInfoRepository;
+        this.supportRequestRepository = supportRequestRepository;
+    }
+
+    @PostConstruct
+    private void build() throws IOException {
+        long start = System.nanoTime();
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+
+        int profiles = 0;
+        List<UserInfo> userInfos = userInfoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(LOAD_PAGE_SIZE));
+        while (!userInfos.isEmpty()) {
+            for (UserInfo userInfo : userInfos) {
+                if (userInfo.getUserId() != null) {
+                    writer.updateDocument(profileKey(userInfo.getUserId()), profileDocument(userInfo));
+                    profiles++;
+                }
+            }
+            userInfos = userInfoRepository.findByIdGreaterThanOrderByIdAsc(userInfos.get(userInfos.size() - 1).getId(), Limit.of(LOAD_PAGE_SIZE));
+        }
+
+        int requests = 0;
+        List<SupportRequest> supportRequests = supportRequestRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(LOAD_PAGE_SIZE));
+        while (!supportRequests.isEmpty()) {
+            for (SupportRequest request : supportRequests) {
+                writer.updateDocument(supportRequestKey(request.getId()), supportRequestDocument(request));
+                requests++;
+            }
+            supportRequests = supportRequestRepository.findByIdGreaterThanOrderByIdAsc(supportRequests.get(supportRequests.size() - 1).getId(), Limit.of(LOAD_PAGE_SIZE));
+        }
+
+        searcherManager.maybeRefreshBlocking();
+        logger.info("Search index built: {} profiles, {} support requests in {} ms.",
+                profiles, requests, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    private void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public void indexSupportRequest(SupportRequest request) {
+        write(() -> writer.updateDocument(supportRequestKey(request.getId()), supportRequestDocument(request)));
+    }
+
+    @Override
+    public void onUserInfoSaved(UserInfo before, UserInfo after) {
+        if (after.getUserId() != null) {
+            write(() -> writer.updateDocument(profileKey(after.getUserId()), profileDocument(after)));
+        }
+    }
+
+    @Override
+    public void onUserInfoDeleted(UserInfo userInfo) {
+        if (userInfo.getUserId() != null) {
+            write(() -> writer.deleteDocuments(profileKey(userInfo.getUserId())));
+        }
+    }
+
+    @Override
+    public void onFlagChanged(UserInfo.Flag flag, ProfileFlags after) {
+        // Текст анкеты не менялся — достаточно обновить doc value без переиндексации документа
+        boolean eligible = isEligible(after.getIsVisible(), after.getIsBanned(), after.getIsBotBlocked());
+        write(() -> writer.updateNumericDocValue(profileKey(after.getUserId()), FIELD_ELIGIBLE, eligible ? 1 : 0));
+    }
+
+    /**
+     * Поиск по имени и тексту анкет и по тексту обращений. Все слова запроса должны встретиться в документе.
+     *
+     * @param page номер страницы, начиная с 0
+     */
+    public SearchResults search(String text, int page, int pageSize) {
+        QueryParser parser = new MultiFieldQueryParser(new String[]{FIELD_NAME, FIELD_CONTENT}, analyzer);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        Query query;
+        try {
+            query = parser.parse(QueryParser.escape(text));
+        } catch (ParseException e) {
+            return new SearchResults(List.of(), 0);
+        }
+
+        return withSearcher(searcher -> {
+            // Номер страницы приходит из данных кнопки: считаем в long, чтобы не переполнить int,
+            // и не запрашиваем больше документов, чем есть в индексе
+            long from = (long) Math.max(0, page) * pageSize;
+            int top = (int) Math.min(from + pageSize, Math.max(1, searcher.getIndexReader().maxDoc()));
+            TopDocs topDocs = searcher.search(query, top);
+            List<Hit> hits = new ArrayList<>(pageSize);
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = (int) Math.min(from, scoreDocs.length); i < scoreDocs.length; i++) {
+                hits.add(toHit(searcher.doc(scoreDocs[i].doc), scoreDocs[i].score));
+            }
+            return new SearchResults(hits, topDocs.totalHits.value);
+        });
+    }
+
+    /**
+     * Анкеты, участвующие в подборе, наиболее похожие на анкету пользователя — тот же запрос по интересам
+     * и фан-факту, что и в еженедельном подборе ({@code TextSimilarity}), но по живому индексу и для одного пользователя.
+     *
+     * @param excludedUserIds пользователи, которых не нужно предлагать (кроме самого пользователя)
+     * @return user id от наиболее похожего к наименее похожему; пусто, если анкеты пользователя нет в индексе
+     */
+    public List<Long> findSimilarProfiles(Long userId, Collection<Long> excludedUserIds, int limit) {
+        return withSearcher(searcher -> {
+            TopDocs own = searcher.search(new TermQuery(profileKey(userId)), 1);
+            if (own.scoreDocs.length == 0) {
+                return List.of();
+            }
+            String content = searcher.doc(own.scoreDocs[0].doc).get(FIELD_CONTENT);
+
+            Query similarTo;
+            try {
+                similarTo = new QueryParser(FIELD_CONTENT, analyzer).parse(QueryParser.escape(content));
+            } catch (ParseException e) {
+                return List.of();
+            }
+
+            List<BytesRef> excludedKeys = new ArrayList<>(excludedUserIds.size() + 1);
+            excludedKeys.add(profileKey(userId).bytes());
+            excludedUserIds.forEach(excluded -> excludedKeys.add(profileKey(excluded).bytes()));
+
+            Query query = new BooleanQuery.Builder()
+                    .add(similarTo, BooleanClause.Occur.MUST)
+                    .add(NumericDocValuesField.newSlowExactQuery(FIELD_ELIGIBLE, 1), BooleanClause.Occur.FILTER)
+                    .add(new TermInSetQuery(FIELD_KEY, excludedKeys), BooleanClause.Occur.MUST_NOT)
+                    .build();
+
+            List<Long> similar = new ArrayList<>(limit);
+            for (ScoreDoc scoreDoc : searcher.search(query, limit).scoreDocs) {
+                similar.add(searcher.doc(scoreDoc.doc).getField(FIELD_USER_ID).numericValue().longValue());
+            }
+            return similar;
+        });
+    }
+
+    <T> T withSearcher(SearcherFunction<T> function) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return function.apply(searcher);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(IndexOperation operation) {
+        try {
+            operation.run();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            logger.error("Failed to update search index", e);
+        }
+    }
+
+    static Term profileKey(Long userId) {
+        return new Term(FIELD_KEY, "profile:" + userId);
+    }
+
+    private static Term supportRequestKey(Long requestId) {
+        return new Term(FIELD_KEY, "support:" + requestId);
+    }
+
+    static String profileContent(String discussionTopic, String funFact) {
+        return "Интересы: " + discussionTopic + "\n" +
+                "Фан-факт: " + funFact;
+    }
+
+    private static boolean isEligible(Boolean visible, Boolean banned, Boolean botBlocked) {
+        return Boolean.TRUE.equals(visible) && !Boolean.TRUE.equals(banned) && !Boolean.TRUE.equals(botBlocked);
+    }
+
+    private static Document profileDocument(UserInfo userInfo) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_KEY, "profile:" + userInfo.getUserId(), Field.Store.NO));
+        doc.add(new StringField(FIELD_TYPE, Hit.Type.PROFILE.name(), Field.Store.YES));
+        doc.add(new StoredField(FIELD_USER_ID, userInfo.getUserId()));
+        doc.add(new TextField(FIELD_NAME, String.valueOf(userInfo.getName()), Field.Store.YES));
+        doc.add(new TextField(FIELD_CONTENT, profileContent(userInfo.getDiscussionTopic(), userInfo.getFunFact()), Field.Store.YES));
+        doc.add(new NumericDocValuesField(FIELD_ELIGIBLE,
+                isEligible(userInfo.getIsVisible(), userInfo.getIsBanned(), userInfo.getIsBotBlocked()) ? 1 : 0));
+        return doc;
+    }
+
+    private static Document supportRequestDocument(SupportRequest request) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_KEY, "support:" + request.getId(), Field.Store.NO));
+        doc.add(new StringField(FIELD_TYPE, Hit.Type.SUPPORT_REQUEST.name(), Field.Store.YES));
+        doc.add(new StoredField(FIELD_USER_ID, request.getUserId()));
+        doc.add(new StoredField(FIELD_REQUEST_ID, request.getId()));
+        doc.add(new TextField(FIELD_CONTENT, String.valueOf(request.getMessage()), Field.Store.YES));
+        doc.add(new NumericDocValuesField(FIELD_ELIGIBLE, 0));
+        return doc;
+    }
+
+    private static Hit toHit(Document doc, float score) {
+        Hit.Type type = Hit.Type.valueOf(doc.get(FIELD_TYPE));
+        return new Hit(
+                type,
+                doc.getField(FIELD_USER_ID).numericValue().longValue(),
+                type == Hit.Type.SUPPORT_REQUEST ? doc.getField(FIELD_REQUEST_ID).numericValue().longValue() : null,
+                doc.get(FIELD_NAME),
+                doc.get(FIELD_CONTENT),
+                score
+        );
+    }
+
+    @FunctionalInterface
+    interface SearcherFunction<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation {
+        void run() throws IOException;
+    }
+
+    public record Hit(Type type, Long userId, Long requestId, String name, String content, float score) {
+        public enum Type {
+            PROFILE,
+            SUPPORT_REQUEST
+        }
+    }
+
+    public record SearchResults(List<Hit> hits, long totalHits) {
+    }
+}
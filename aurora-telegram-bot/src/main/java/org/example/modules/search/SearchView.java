@@ -0,0 +1,77 @@
+package org.example.modules.search;
+
+import org.example.messaging.Html;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Страница результатов /find. Текст запроса не помещается в данные кнопки (до 64 байт),
+ * поэтому последний запрос каждого администратора хранится здесь, а кнопки несут только номер страницы.
+ */
+public class SearchView {
+    public static final String PAGE_CALLBACK = "find";
+
+    private static final int PAGE_SIZE = 5;
+    private static final int PREVIEW_LENGTH = 200;
+
+    private final SearchIndex searchIndex;
+    private final Map<Long, String> lastQueries = new ConcurrentHashMap<>();
+
+    public SearchView(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    public Page render(Long userId, String query) {
+        lastQueries.put(userId, query);
+        return render(query, 0);
+    }
+
+    public Page renderPage(Long userId, int page) {
+        String query = lastQueries.get(userId);
+        if (query == null) {
+            return new Page("Запрос устарел. Повторите поиск: /find &lt;текст&gt;", new String[0]);
+        }
+        return render(query, Math.max(page, 0));
+    }
+
+    private Page render(String query, int page) {
+        long start = System.nanoTime();
+        SearchIndex.SearchResults results = searchIndex.search(query, page, PAGE_SIZE);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        StringBuilder text = new StringBuilder(String.format("🔎 «%s»: найдено %d (%d мс)\n\n",
+                Html.escape(query), results.totalHits(), elapsedMs));
+        if (results.hits().isEmpty()) {
+            text.append(page == 0 ? "Ничего не найдено." : "Больше результатов нет.");
+        }
+        for (SearchIndex.Hit hit : results.hits()) {
+            text.append(formatHit(hit)).append("\n\n");
+        }
+
+        List<String> buttons = new ArrayList<>();
+        if (page > 0) {
+            buttons.add("◀ Назад");
+            buttons.add(PAGE_CALLBACK + ":" + (page - 1));
+        }
+        if ((long) (page + 1) * PAGE_SIZE < results.totalHits()) {
+            buttons.add("Далее ▶");
+            buttons.add(PAGE_CALLBACK + ":" + (page + 1));
+        }
+        return new Page(text.toString().stripTrailing(), buttons.toArray(String[]::new));
+    }
+
+    private String formatHit(SearchIndex.Hit hit) {
+        if (hit.type() == SearchIndex.Hit.Type.SUPPORT_REQUEST) {
+            return String.format("📨 Обращение #%d от <a href=\"tg://user?id=%d\">%d</a>\n%s",
+                    hit.requestId(), hit.userId(), hit.userId(), Html.preview(hit.content(), PREVIEW_LENGTH));
+        }
+        return String.format("👤 %s — <a href=\"tg://user?id=%d\">%d</a>\n%s",
+                Html.escape(hit.name()), hit.userId(), hit.userId(), Html.preview(hit.content(), PREVIEW_LENGTH));
+    }
+
+    public record Page(String text, String[] buttons) {
+    }
+}
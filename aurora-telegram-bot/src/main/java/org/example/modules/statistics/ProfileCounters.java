@@ -0,0 +1,104 @@
+package org.example.modules.statistics;
+
+import jakarta.annotation.PostConstruct;
+import org.example.interfaces.UserInfoChangeListener;
+import org.example.models.UserInfo;
+import org.example.models.projections.ProfileCounts;
+import org.example.models.projections.ProfileFlags;
+import org.example.repositories.UserInfoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Текущее количество анкет по состояниям без запросов к базе. Начальные значения берутся агрегирующим запросом
+ * при старте, дальше счётчики меняются на разницу между состоянием анкеты до и после каждого изменения.
+ * Ежедневный сбор статистики сверяет их с базой ({@link #resync}).
+ */
+@Component
+public class ProfileCounters implements UserInfoChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProfileCounters.class);
+
+    private final UserInfoRepository userInfoRepository;
+
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong active = new AtomicLong();
+    private final AtomicLong banned = new AtomicLong();
+    private final AtomicLong botBlocked = new AtomicLong();
+    private final AtomicLong eligible = new AtomicLong();
+
+    @Autowired
+    public ProfileCounters(UserInfoRepository userInfoRepository) {
+        this.userInfoRepository = userInfoRepository;
+    }
+
+    @PostConstruct
+    private void load() {
+        resync(userInfoRepository.countByState());
+    }
+
+    public ProfileCounts snapshot() {
+        return new ProfileCounts(total.get(), active.get(), banned.get(), botBlocked.get(), eligible.get());
+    }
+
+    /**
+     * Заменяет счётчики значениями из базы и пишет в лог, насколько они успели разойтись.
+     */
+    public void resync(ProfileCounts counts) {
+        ProfileCounts live = snapshot();
+        total.set(counts.total());
+        active.set(counts.active());
+        banned.set(counts.banned());
+        botBlocked.set(counts.botBlocked());
+        eligible.set(counts.eligible());
+        if (!live.equals(counts)) {
+            logger.info("Profile counters resynced: live = {}, database = {}", live, counts);
+        }
+    }
+
+    @Override
+    public void onUserInfoSaved(UserInfo before, UserInfo after) {
+        if (before != null) {
+            apply(-1, before.getIsVisible(), before.getIsBanned(), before.getIsBotBlocked());
+        }
+        apply(1, after.getIsVisible(), after.getIsBanned(), after.getIsBotBlocked());
+    }
+
+    @Override
+    public void onUserInfoDeleted(UserInfo userInfo) {
+        apply(-1, userInfo.getIsVisible(), userInfo.getIsBanned(), userInfo.getIsBotBlocked());
+    }
+
+    @Override
+    public void onFlagChanged(UserInfo.Flag flag, ProfileFlags after) {
+        Boolean visible = after.getIsVisible();
+        Boolean isBanned = after.getIsBanned();
+        Boolean isBotBlocked = after.getIsBotBlocked();
+
+        // До обновления отличался только изменённый флаг; его прежнее значение (в том числе NULL) пришло из базы
+        apply(-1,
+                flag == UserInfo.Flag.VISIBLE ? after.getPreviousValue() : visible,
+                flag == UserInfo.Flag.BANNED ? after.getPreviousValue() : isBanned,
+                flag == UserInfo.Flag.BOT_BLOCKED ? after.getPreviousValue() : isBotBlocked);
+        apply(1, visible, isBanned, isBotBlocked);
+    }
+
+    private void apply(int delta, Boolean visible, Boolean isBanned, Boolean isBotBlocked) {
+        total.addAndGet(delta);
+        if (Boolean.TRUE.equals(visible)) {
+            active.addAndGet(delta);
+        }
+        if (Boolean.TRUE.equals(isBanned)) {
+            banned.addAndGet(delta);
+        }
+        if (Boolean.TRUE.equals(isBotBlocked)) {
+            botBlocked.addAndGet(delta);
+        }
+        if (Boolean.TRUE.equals(visible) && Boolean.FALSE.equals(isBanned) && Boolean.FALSE.equals(isBotBlocked)) {
+            eligible.addAndGet(delta);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.modules.statistics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Текст истории для /profile_stats. Дни берутся из profile_statistics, недели и месяцы — из свёрток.
+ * Данные меняются только при ежедневном сборе статистики, поэтому готовый текст кэшируется
+ * по диапазону до следующего сбора ({@link #invalidate()}).
+ */
+@Component
+public class ProfileStatisticsReport {
+
+    private static final Pattern RANGE = Pattern.compile("(\\d{1,3})\\s*([dwmy])");
+    private static final int MAX_DAYS = 31;
+    private static final int MAX_WEEKS = 52;
+    private static final int MAX_MONTHS = 24;
+    private static final int MAX_YEARS = 2;
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("LLLL yyyy", Locale.of("ru"));
+
+    public static final String USAGE = String.format(
+            "Укажите период: /profile_stats 30d (до %d дней), 12w (до %d недель), 6m (до %d месяцев) или 1y (до %d лет).",
+            MAX_DAYS, MAX_WEEKS, MAX_MONTHS, MAX_YEARS);
+
+    private final ProfileStatisticsRepository profileStatisticsRepository;
+    private final ProfileStatisticsRollupRepository rollupRepository;
+    private final Map<String, String> rendered = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProfileStatisticsReport(ProfileStatisticsRepository profileStatisticsRepository,
+                                   ProfileStatisticsRollupRepository rollupRepository) {
+        this.profileStatisticsRepository = profileStatisticsRepository;
+        this.rollupRepository = rollupRepository;
+    }
+
+    /**
+     * @param range пустая строка для последних 7 дней или период вида 30d / 12w / 6m / 1y
+     * @return текст отчёта или пустой Optional, если период не распознан (тогда показывается {@link #USAGE})
+     */
+    public Optional<String> render(String range) {
+        String key = range.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) {
+            return Optional.of(rendered.computeIfAbsent(key, k -> renderLastWeek(LocalDate.now())));
+        }
+
+        Matcher matcher = RANGE.matcher(key);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        int amount = Integer.parseInt(matcher.group(1));
+        char unit = matcher.group(2).charAt(0);
+        if (amount == 0 || amount > maxAmount(unit)) {
+            return Optional.empty();
+        }
+        return Optional.of(rendered.computeIfAbsent(amount + String.valueOf(unit), k -> renderRange(amount, unit, LocalDate.now())));
+    }
+
+    public void invalidate() {
+        rendered.clear();
+    }
+
+    private static int maxAmount(char unit) {
+        return switch (unit) {
+            case 'd' -> MAX_DAYS;
+            case 'w' -> MAX_WEEKS;
+            case 'm' -> MAX_MONTHS;
+            default -> MAX_YEARS;
+        };
+    }
+
+    private String renderLastWeek(LocalDate today) {
+        List<ProfileStatistics> stats = profileStatisticsRepository.findStatisticsSince(today.minusDays(7));
+        if (stats.isEmpty()) {
+            return "Нет данных для отображения за последние 7 дней.";
+        }
+
+        StringBuilder statsMessage = new StringBuilder("Подробная статистика за последние 7 дней:\n\n");
+        for (ProfileStatistics stat : stats) {
+            statsMessage.append(String.format(
+                    "%-12s Всего профилей: %-5d Активных: %-5d Забанено: %-5d Заблокировали бота: %-5d Участвуют: %-5d\n",
+                    DAY_FORMAT.format(stat.getDate()),
+                    stat.getTotalProfiles(),
+                    stat.getActiveProfiles(),
+                    stat.getBannedProfiles(),
+                    stat.getBotBlockedProfiles(),
+                    stat.getEligibleProfiles()
+            ));
+        }
+        return statsMessage.toString();
+    }
+
+    private String renderRange(int amount, char unit, LocalDate today) {
+        StringBuilder message = new StringBuilder();
+        int rows = 0;
+        switch (unit) {
+            case 'd' -> {
+                message.append("Статистика по дням, последние ").append(amount).append(" дн.\n");
+                for (ProfileStatistics stat : profileStatisticsRepository.findStatisticsSince(today.minusDays(amount - 1))) {
+                    appendRow(message, DAY_FORMAT.format(stat.getDate()), stat.getTotalProfiles(), stat.getActiveProfiles(),
+                            stat.getBannedProfiles(), stat.getBotBlockedProfiles(), stat.getEligibleProfiles());
+                    rows++;
+                }
+            }
+            case 'w' -> {
+                message.append("Статистика по неделям, последние ").append(amount).append(" нед.\n");
+                LocalDate from = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(amount - 1);
+                rows = appendRollups(message, ProfileStatisticsRollup.Period.WEEK, from);
+            }
+            default -> {
+                int months = unit == 'y' ? amount * 12 : amount;
+                message.append("Статистика по месяцам, последние ").append(months).append(" мес.\n");
+                LocalDate from = today.withDayOfMonth(1).minusMonths(months - 1);
+                rows = appendRollups(message, ProfileStatisticsRollup.Period.MONTH, from);
+            }
+        }
+
+        if (rows == 0) {
+            return "Нет данных за выбранный период.";
+        }
+        message.append("\nВсего / активных / забанено / заблокировали бота / участвуют");
+        return message.toString();
+    }
+
+    private int appendRollups(StringBuilder message, ProfileStatisticsRollup.Period period, LocalDate from) {
+        List<ProfileStatisticsRollup> rollups =
+                rollupRepository.findByPeriodAndPeriodStartGreaterThanEqualOrderByPeriodStartAsc(period, from);
+        for (ProfileStatisticsRollup rollup : rollups) {
+            String label = period == ProfileStatisticsRollup.Period.WEEK
+                    ? "с " + DAY_FORMAT.format(rollup.getPeriodStart())
+                    : MONTH_FORMAT.format(rollup.getPeriodStart());
+            appendRow(message, label, rollup.getTotalProfiles(), rollup.getActiveProfiles(),
+                    rollup.getBannedProfiles(), rollup.getBotBlockedProfiles(), rollup.getEligibleProfiles());
+        }
+        return rollups.size();
+    }
+
+    // Компактная строка, чтобы год по неделям помещался в одно сообщение Telegram (4096 символов)
+    private static void appendRow(StringBuilder message, String label, Long total, Long active,
+                                  Long banned, Long botBlocked, Long eligible) {
+        message.append(label).append(": ")
+                .append(total).append(" / ")
+                .append(active).append(" / ")
+                .append(banned).append(" / ")
+                .append(botBlocked).append(" / ")
+                .append(eligible).append('\n');
+    }
+}
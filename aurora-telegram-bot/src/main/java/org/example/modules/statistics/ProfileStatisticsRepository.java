@@ -1,8 +1,10 @@
 package org.example.modules.statistics;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -10,5 +12,10 @@ import java.util.List;
 @Repository
 public interface ProfileStatisticsRepository extends JpaRepository<ProfileStatistics, Long> {
     @Query("SELECT ps FROM ProfileStatistics ps WHERE ps.date >= :startDate ORDER BY ps.date ASC")
-    List<ProfileStatistics> findLast7DaysStatistics(LocalDate startDate);
+    List<ProfileStatistics> findStatisticsSince(LocalDate startDate);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProfileStatistics ps WHERE ps.date < :before")
+    int deleteByDateBefore(LocalDate before);
 }
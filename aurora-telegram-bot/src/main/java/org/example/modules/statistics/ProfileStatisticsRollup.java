@@ -0,0 +1,43 @@
+package org.example.modules.statistics;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Недельный или месячный срез статистики анкет. Значения берутся из последнего дневного среза периода,
+ * поэтому свёртка переживает удаление старых строк profile_statistics.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "profile_statistics_rollup")
+public class ProfileStatisticsRollup {
+
+    public enum Period {
+        WEEK,
+        MONTH
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Period period;
+
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private Integer samples;
+
+    private Long totalProfiles;
+    private Long activeProfiles;
+    private Long bannedProfiles;
+    private Long botBlockedProfiles;
+    private Long eligibleProfiles;
+}
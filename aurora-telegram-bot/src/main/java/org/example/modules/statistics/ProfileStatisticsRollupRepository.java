@@ -0,0 +1,46 @@
+package org.example.modules.statistics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProfileStatisticsRollupRepository extends JpaRepository<ProfileStatisticsRollup, Long> {
+
+    List<ProfileStatisticsRollup> findByPeriodAndPeriodStartGreaterThanEqualOrderByPeriodStartAsc(
+            ProfileStatisticsRollup.Period period, LocalDate from);
+
+    /**
+     * Пересчитывает свёртки всех периодов, начинающихся не раньше {@code from}, из дневных срезов.
+     * Период берёт значения своего последнего дня; повторный запуск перезаписывает строку.
+     *
+     * @param period    WEEK или MONTH
+     * @param truncUnit единица date_trunc: 'week' или 'month'
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO profile_statistics_rollup (period, period_start, samples, total_profiles, active_profiles,
+                                                   banned_profiles, bot_blocked_profiles, eligible_profiles)
+            SELECT DISTINCT ON (bucket)
+                   :period, bucket, COUNT(*) OVER (PARTITION BY bucket),
+                   total_profiles, active_profiles, banned_profiles, bot_blocked_profiles, eligible_profiles
+            FROM (SELECT ps.*, CAST(date_trunc(:truncUnit, CAST(ps.date AS TIMESTAMP)) AS DATE) AS bucket
+                  FROM profile_statistics ps
+                  WHERE ps.date >= CAST(date_trunc(:truncUnit, CAST(:from AS TIMESTAMP)) AS DATE)) daily
+            ORDER BY bucket, date DESC, id DESC
+            ON CONFLICT (period, period_start) DO UPDATE
+                SET samples              = EXCLUDED.samples,
+                    total_profiles       = EXCLUDED.total_profiles,
+                    active_profiles      = EXCLUDED.active_profiles,
+                    banned_profiles      = EXCLUDED.banned_profiles,
+                    bot_blocked_profiles = EXCLUDED.bot_blocked_profiles,
+                    eligible_profiles    = EXCLUDED.eligible_profiles
+            """, nativeQuery = true)
+    int upsertRollups(String period, String truncUnit, LocalDate from);
+}
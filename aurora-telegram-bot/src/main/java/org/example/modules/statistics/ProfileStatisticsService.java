@@ -1,18 +1,35 @@
 package org.example.modules.statistics;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
 import java.util.List;
 
 @Service
 public class ProfileStatisticsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProfileStatisticsService.class);
+
+    // Пока свёрток нет, они строятся по всем дневным срезам
+    private static final LocalDate BACKFILL_FROM = LocalDate.of(1970, 1, 1);
+
     private final ProfileStatisticsRepository profileStatisticsRepository;
+    private final ProfileStatisticsRollupRepository rollupRepository;
+    private final int rawRetentionDays;
 
     @Autowired
-    public ProfileStatisticsService(ProfileStatisticsRepository profileStatisticsRepository) {
+    public ProfileStatisticsService(ProfileStatisticsRepository profileStatisticsRepository,
+                                    ProfileStatisticsRollupRepository rollupRepository,
+                                    @Value("${aurora.statistics.raw-retention-days:90}") int rawRetentionDays) {
         this.profileStatisticsRepository = profileStatisticsRepository;
+        this.rollupRepository = rollupRepository;
+        this.rawRetentionDays = rawRetentionDays;
     }
 
     public void saveProfileStatistics(ProfileStatistics profileStatistics) {
@@ -22,4 +39,22 @@ public class ProfileStatisticsService {
     public List<ProfileStatistics> getAllProfileStatistics() {
         return profileStatisticsRepository.findAll();
     }
+
+    /**
+     * Пересчитывает недельные и месячные свёртки за окно хранения и удаляет дневные срезы старше окна.
+     * Окно выравнивается на начало месяца и недели, в которую оно попадает, поэтому каждый
+     * пересчитываемый период видит все свои дневные срезы.
+     */
+    public void rollUpAndApplyRetention(LocalDate today) {
+        LocalDate monthStart = today.minusDays(rawRetentionDays).withDayOfMonth(1);
+        LocalDate cutoff = monthStart.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate from = rollupRepository.count() == 0 ? BACKFILL_FROM : cutoff;
+
+        int weeks = rollupRepository.upsertRollups(ProfileStatisticsRollup.Period.WEEK.name(), "week", from);
+        int months = rollupRepository.upsertRollups(ProfileStatisticsRollup.Period.MONTH.name(), "month", from);
+        int deleted = profileStatisticsRepository.deleteByDateBefore(cutoff);
+
+        logger.info("Profile statistics rolled up: {} weeks, {} months since {}; {} daily rows before {} deleted.",
+                weeks, months, from, deleted, cutoff);
+    }
 }
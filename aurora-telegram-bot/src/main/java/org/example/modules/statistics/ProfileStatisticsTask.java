@@ -1,5 +1,7 @@
 package org.example.modules.statistics;
 
+import org.example.metrics.BotMetrics;
+import org.example.models.projections.ProfileCounts;
 import org.example.repositories.UserInfoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -16,34 +18,52 @@ public class ProfileStatisticsTask {
 
     private final UserInfoRepository userInfoRepository;
     private final ProfileStatisticsService profileStatisticsService;
+    private final ProfileCounters profileCounters;
+    private final ProfileStatisticsReport profileStatisticsReport;
+    private final BotMetrics botMetrics;
 
     @Autowired
-    public ProfileStatisticsTask(UserInfoRepository userInfoRepository, ProfileStatisticsService profileStatisticsService) {
+    public ProfileStatisticsTask(UserInfoRepository userInfoRepository, ProfileStatisticsService profileStatisticsService,
+                                 ProfileCounters profileCounters, ProfileStatisticsReport profileStatisticsReport,
+                                 BotMetrics botMetrics) {
         this.userInfoRepository = userInfoRepository;
         this.profileStatisticsService = profileStatisticsService;
+        this.profileCounters = profileCounters;
+        this.profileStatisticsReport = profileStatisticsReport;
+        this.botMetrics = botMetrics;
     }
 
     @Scheduled(cron = "0 0 18 * * *") // 18:00
     public void collectProfileStatistics() {
-        logger.info("Collecting detailed profile statistics.");
-
-        long totalProfiles = userInfoRepository.count();
-        long activeProfiles = userInfoRepository.countByIsVisibleTrue();
-        long bannedProfiles = userInfoRepository.countByIsBannedTrue();
-        long botBlockedProfiles = userInfoRepository.countByIsBotBlockedTrue();
-        long eligibleProfiles = userInfoRepository.countByIsVisibleTrueAndIsBannedFalseAndIsBotBlockedFalse(); // Добавлено
-
-        ProfileStatistics profileStatistics = new ProfileStatistics();
-        profileStatistics.setDate(LocalDate.now());
-        profileStatistics.setTotalProfiles(totalProfiles);
-        profileStatistics.setActiveProfiles(activeProfiles);
-        profileStatistics.setBannedProfiles(bannedProfiles);
-        profileStatistics.setBotBlockedProfiles(botBlockedProfiles);
-        profileStatistics.setEligibleProfiles(eligibleProfiles);
-
-        profileStatisticsService.saveProfileStatistics(profileStatistics);
-
-        logger.info("Profile statistics collected: Total = {}, Active = {}, Banned = {}, BotBlocked = {}, Eligible = {}",
-                totalProfiles, activeProfiles, bannedProfiles, botBlockedProfiles, eligibleProfiles);
+        botMetrics.timeTask("profile_statistics", () -> {
+            logger.info("Collecting detailed profile statistics.");
+
+            ProfileCounts counts = userInfoRepository.countByState();
+            profileCounters.resync(counts);
+            long totalProfiles = counts.total();
+            long activeProfiles = counts.active();
+            long bannedProfiles = counts.banned();
+            long botBlockedProfiles = counts.botBlocked();
+            long eligibleProfiles = counts.eligible();
+
+            ProfileStatistics profileStatistics = new ProfileStatistics();
+            profileStatistics.setDate(LocalDate.now());
+            profileStatistics.setTotalProfiles(totalProfiles);
+            profileStatistics.setActiveProfiles(activeProfiles);
+            profileStatistics.setBannedProfiles(bannedProfiles);
+            profileStatistics.setBotBlockedProfiles(botBlockedProfiles);
+            profileStatistics.setEligibleProfiles(eligibleProfiles);
+
+            profileStatisticsService.saveProfileStatistics(profileStatistics);
+            try {
+                profileStatisticsService.rollUpAndApplyRetention(profileStatistics.getDate());
+            } catch (Exception e) {
+                logger.error("Failed to roll up profile statistics", e);
+            }
+            profileStatisticsReport.invalidate();
+
+            logger.info("Profile statistics collected: Total = {}, Active = {}, Banned = {}, BotBlocked = {}, Eligible = {}",
+                    totalProfiles, activeProfiles, bannedProfiles, botBlockedProfiles, eligibleProfiles);
+        });
     }
 }
@@ -0,0 +1,82 @@
+package org.example.modules.support_inbox;
+
+import org.example.AuroraBot;
+import org.example.messaging.Html;
+import org.example.models.SupportRequest;
+import org.example.services.AdminRegistry;
+import org.example.services.SupportRequestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Сводка новых обращений для администраторов. Вместо сообщения на каждое обращение
+ * раз в интервал отправляется одно сообщение со всеми обращениями, пришедшими с прошлой сводки.
+ */
+@Component
+public class SupportDigestTask {
+    private static final Logger logger = LoggerFactory.getLogger(SupportDigestTask.class);
+
+    private static final int PREVIEW_LENGTH = 150;
+
+    private final SupportRequestService supportRequestService;
+    private final AdminRegistry adminRegistry;
+    private final AuroraBot auroraBot;
+    private final int maxRequests;
+
+    @Autowired
+    public SupportDigestTask(SupportRequestService supportRequestService,
+                             AdminRegistry adminRegistry,
+                             AuroraBot auroraBot,
+                             @Value("${aurora.support.digest-max-requests:20}") int maxRequests) {
+        this.supportRequestService = supportRequestService;
+        this.adminRegistry = adminRegistry;
+        this.auroraBot = auroraBot;
+        this.maxRequests = maxRequests;
+    }
+
+    @Scheduled(fixedDelayString = "${aurora.support.digest-interval-ms:300000}")
+    public void sendDigest() {
+        List<SupportRequest> requests = supportRequestService.getNotNotifiedRequests(maxRequests);
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        Set<Long> adminIds = adminRegistry.getAdminIds();
+        if (adminIds.isEmpty()) {
+            // Обращения остаются в очереди сводки до появления администратора
+            logger.warn("{} support requests are waiting for a digest, but there are no admins.", requests.size());
+            return;
+        }
+
+        String digest = formatDigest(requests);
+        int delivered = 0;
+        for (Long adminId : adminIds) {
+            if (auroraBot.sendTextMessage(adminId, digest)) {
+                delivered++;
+            }
+        }
+
+        if (delivered > 0) {
+            supportRequestService.markAdminNotified(requests.stream().map(SupportRequest::getId).toList());
+        }
+        logger.info("Support digest with {} requests delivered to {} of {} admins.", requests.size(), delivered, adminIds.size());
+    }
+
+    private String formatDigest(List<SupportRequest> requests) {
+        StringBuilder digest = new StringBuilder(String.format("📬 Новые обращения в поддержку: %d\n\n", requests.size()));
+        for (SupportRequest request : requests) {
+            digest.append(String.format("#%d от <a href=\"tg://user?id=%d\">%d</a>: %s\n",
+                    request.getId(), request.getUserId(), request.getUserId(),
+                    Html.preview(request.getMessage(), PREVIEW_LENGTH)));
+        }
+        digest.append("\nВзять в работу: /support_inbox");
+        return digest.toString();
+    }
+}
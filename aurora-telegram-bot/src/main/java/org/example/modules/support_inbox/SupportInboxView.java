@@ -0,0 +1,97 @@
+package org.example.modules.support_inbox;
+
+import org.example.messaging.Html;
+import org.example.models.SupportRequest;
+import org.example.services.SupportRequestService;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Страница входящих обращений для администратора: счётчики по статусам, обращения от новых к старым
+ * и кнопки «Взять» / «Закрыть» / «Далее». Следующая страница задаётся id последнего показанного обращения.
+ */
+public class SupportInboxView {
+    public static final String PAGE_CALLBACK = "support_inbox";
+    public static final String CLAIM_CALLBACK = "support_claim";
+    public static final String CLOSE_CALLBACK = "support_close";
+
+    private static final int PAGE_SIZE = 5;
+    private static final int PREVIEW_LENGTH = 300;
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("dd.MM HH:mm");
+
+    private final SupportRequestService supportRequestService;
+
+    public SupportInboxView(SupportRequestService supportRequestService) {
+        this.supportRequestService = supportRequestService;
+    }
+
+    public Page render(Long beforeId) {
+        Map<SupportRequest.RequestStatus, Long> counts = supportRequestService.countAllByStatus();
+        List<SupportRequest> requests = supportRequestService.getInboxPage(beforeId, PAGE_SIZE);
+
+        StringBuilder text = new StringBuilder(String.format(
+                "📥 Обращения в поддержку\nОткрытых: %d В работе: %d Закрытых: %d\n\n",
+                counts.get(SupportRequest.RequestStatus.OPEN),
+                counts.get(SupportRequest.RequestStatus.IN_PROGRESS),
+                counts.get(SupportRequest.RequestStatus.CLOSED)
+        ));
+        List<String> buttons = new ArrayList<>();
+
+        if (requests.isEmpty()) {
+            text.append(beforeId == null ? "Необработанных обращений нет." : "Больше обращений нет.");
+        }
+        for (SupportRequest request : requests) {
+            text.append(formatRequest(request)).append("\n\n");
+            if (request.getRequestStatus() == SupportRequest.RequestStatus.OPEN) {
+                buttons.add("Взять #" + request.getId());
+                buttons.add(CLAIM_CALLBACK + ":" + request.getId());
+            }
+            buttons.add("Закрыть #" + request.getId());
+            buttons.add(CLOSE_CALLBACK + ":" + request.getId());
+        }
+
+        if (requests.size() == PAGE_SIZE) {
+            buttons.add("Далее ▶");
+            buttons.add(PAGE_CALLBACK + ":" + requests.get(requests.size() - 1).getId());
+        }
+        if (beforeId != null) {
+            buttons.add("В начало");
+            buttons.add(PAGE_CALLBACK);
+        }
+        return new Page(text.toString().stripTrailing(), buttons.toArray(String[]::new));
+    }
+
+    private String formatRequest(SupportRequest request) {
+        String status = request.getRequestStatus() == SupportRequest.RequestStatus.OPEN
+                ? "🆕 открыто"
+                : String.format("🛠 в работе у <a href=\"tg://user?id=%d\">%d</a>", request.getAssigneeUserId(), request.getAssigneeUserId());
+        return String.format(
+                "#%d · %s · %s\nОт: <a href=\"tg://user?id=%d\">%d</a>\n%s",
+                request.getId(),
+                request.getCreatedAt().format(CREATED_AT_FORMAT),
+                status,
+                request.getUserId(), request.getUserId(),
+                Html.preview(request.getMessage(), PREVIEW_LENGTH)
+        );
+    }
+
+    /**
+     * Разбирает id из данных кнопки; для некорректного значения возвращает {@code null}.
+     */
+    public static Long parseId(String arg) {
+        if (arg == null || arg.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(arg.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public record Page(String text, String[] buttons) {
+    }
+}
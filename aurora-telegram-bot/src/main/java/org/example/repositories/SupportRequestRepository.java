@@ -1,14 +1,53 @@
 package org.example.repositories;
 
 import org.example.models.SupportRequest;
+import org.example.models.projections.StatusCount;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SupportRequestRepository extends JpaRepository<SupportRequest, Long> {
     Optional<SupportRequest> findTopByUserIdOrderByCreatedAtDesc(Long userId);
 
+    List<SupportRequest> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
     long countByRequestStatus(SupportRequest.RequestStatus status);
+
+    @Query("SELECT new org.example.models.projections.StatusCount(s.requestStatus, COUNT(s)) " +
+            "FROM SupportRequest s GROUP BY s.requestStatus")
+    List<StatusCount> countGroupedByStatus();
+
+    // Страница входящих от новых к старым: следующая страница начинается с id меньше последнего показанного
+    @Query("SELECT s FROM SupportRequest s WHERE s.requestStatus IN :statuses AND s.id < :beforeId ORDER BY s.id DESC")
+    List<SupportRequest> findInboxPage(Collection<SupportRequest.RequestStatus> statuses, Long beforeId, Limit limit);
+
+    List<SupportRequest> findByAdminNotifiedFalseOrderByIdAsc(Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SupportRequest s SET s.adminNotified = true WHERE s.id IN :ids")
+    int markAdminNotified(Collection<Long> ids);
+
+    // Переходы статуса — условные UPDATE, поэтому два администратора не возьмут одно обращение одновременно
+    @Modifying
+    @Transactional
+    @Query("UPDATE SupportRequest s SET s.requestStatus = org.example.models.SupportRequest.RequestStatus.IN_PROGRESS, " +
+            "s.assigneeUserId = :adminId, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.id = :id AND s.requestStatus = org.example.models.SupportRequest.RequestStatus.OPEN")
+    int claim(Long id, Long adminId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SupportRequest s SET s.requestStatus = org.example.models.SupportRequest.RequestStatus.CLOSED, " +
+            "s.assigneeUserId = COALESCE(s.assigneeUserId, :adminId), s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.id = :id AND s.requestStatus <> org.example.models.SupportRequest.RequestStatus.CLOSED")
+    int close(Long id, Long adminId);
 }
@@ -1,25 +1,57 @@
 package org.example.repositories;
 
 import org.example.models.UserInfo;
+import org.example.models.projections.ProfileCounts;
+import org.example.models.projections.ProfileFlags;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserInfoRepository extends JpaRepository<UserInfo, Long> {
-    Optional<UserInfo> findByUserId(Long userId);
+public interface UserInfoRepository extends JpaRepository<UserInfo, Long>, JpaSpecificationExecutor<UserInfo>, UserInfoRepositoryCustom {
+    // u — строка после обновления, old — та же строка до него (самосоединение по id)
+    String RETURNING_FLAGS = "u.user_id AS userId, u.is_visible AS isVisible, u.is_banned AS isBanned, u.is_bot_blocked AS isBotBlocked";
 
-    long countByIsVisibleTrue();
+    Optional<UserInfo> findByUserId(Long userId);
 
     List<UserInfo> findAllByIsVisibleTrue();
 
     List<UserInfo> findByRole(UserInfo.Role role);
 
-    long countByIsBannedTrue();
-
-    long countByIsBotBlockedTrue();
-
-    long countByIsVisibleTrueAndIsBannedFalseAndIsBotBlockedFalse();
+    List<UserInfo> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Все счётчики статистики за один проход по таблице
+    @Query("SELECT new org.example.models.projections.ProfileCounts(" +
+            "COUNT(u), " +
+            "COUNT(u) FILTER (WHERE u.isVisible = true), " +
+            "COUNT(u) FILTER (WHERE u.isBanned = true), " +
+            "COUNT(u) FILTER (WHERE u.isBotBlocked = true), " +
+            "COUNT(u) FILTER (WHERE u.isVisible = true AND u.isBanned = false AND u.isBotBlocked = false)) " +
+            "FROM UserInfo u")
+    ProfileCounts countByState();
+
+    @Query("SELECT u.userId FROM UserInfo u WHERE u.isBotBlocked = true AND u.userId IS NOT NULL")
+    List<Long> findBotBlockedUserIds();
+
+    // UPDATE ... RETURNING выполняется как запрос с результатом, поэтому без @Modifying,
+    // но в пишущей транзакции. Возвращаются только строки, где значение действительно поменялось.
+    @Transactional
+    // NULL считается скрытой анкетой: NOT NULL дал бы NULL, и анкету нельзя было бы сделать видимой
+    @Query(value = "UPDATE user_info u SET is_visible = NOT COALESCE(old.is_visible, false) FROM user_info old " +
+            "WHERE old.id = u.id AND u.user_id = :userId " +
+            "RETURNING " + RETURNING_FLAGS + ", old.is_visible AS previousValue", nativeQuery = true)
+    Optional<ProfileFlags> toggleVisibility(Long userId);
+
+    @Transactional
+    @Query(value = "UPDATE user_info u SET is_bot_blocked = :blocked FROM user_info old " +
+            "WHERE old.id = u.id AND u.user_id IN (:userIds) AND u.is_bot_blocked IS DISTINCT FROM :blocked " +
+            "RETURNING " + RETURNING_FLAGS + ", old.is_bot_blocked AS previousValue", nativeQuery = true)
+    List<ProfileFlags> updateBotBlocked(Collection<Long> userIds, boolean blocked);
 }
@@ -0,0 +1,17 @@
+package org.example.repositories;
+
+import org.example.models.UserInfo;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface UserInfoRepositoryCustom {
+
+    /**
+     * Страница анкет по ключу в порядке id. Фильтр выполняется в SQL, а выбираются только столбцы,
+     * названные так же, как компоненты record-проекции.
+     *
+     * @param afterId id последней строки предыдущей страницы или {@code null} для первой страницы
+     */
+    <P extends Record> List<P> findPage(Specification<UserInfo> filter, Class<P> projection, Long afterId, int limit);
+}
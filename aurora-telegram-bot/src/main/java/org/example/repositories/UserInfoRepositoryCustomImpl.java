@@ -0,0 +1,36 @@
+package org.example.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.example.models.UserInfo;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.List;
+
+class UserInfoRepositoryCustomImpl implements UserInfoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <P extends Record> List<P> findPage(Specification<UserInfo> filter, Class<P> projection, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = cb.createQuery(projection);
+        Root<UserInfo> root = query.from(UserInfo.class);
+
+        Specification<UserInfo> pageFilter = afterId == null ? filter : filter.and(UserInfoSpecifications.idGreaterThan(afterId));
+        Selection<?>[] columns = Arrays.stream(projection.getRecordComponents())
+                .map(component -> root.get(component.getName()))
+                .toArray(Selection<?>[]::new);
+
+        query.select(cb.construct(projection, columns))
+                .where(pageFilter.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.repositories;
+
+import org.example.models.UserInfo;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Фильтры анкет, которые выполняются на стороне базы данных при постраничном обходе таблицы.
+ */
+public final class UserInfoSpecifications {
+
+    private UserInfoSpecifications() {
+    }
+
+    public static Specification<UserInfo> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<UserInfo> idGreaterThan(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<UserInfo> hasUserId() {
+        return (root, query, cb) -> cb.isNotNull(root.get("userId"));
+    }
+
+    public static Specification<UserInfo> isVisible() {
+        return (root, query, cb) -> cb.isTrue(root.get("isVisible"));
+    }
+
+    public static Specification<UserInfo> notBanned() {
+        return (root, query, cb) -> cb.isFalse(root.get("isBanned"));
+    }
+
+    public static Specification<UserInfo> notBotBlocked() {
+        return (root, query, cb) -> cb.isFalse(root.get("isBotBlocked"));
+    }
+
+    /**
+     * Анкеты, которые участвуют в подборе: видимые, не забаненные и не заблокировавшие бота.
+     */
+    public static Specification<UserInfo> eligibleForMatching() {
+        return hasUserId().and(isVisible()).and(notBanned()).and(notBotBlocked());
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.services;
+
+import jakarta.annotation.PostConstruct;
+import org.example.interfaces.UserInfoChangeListener;
+import org.example.models.UserInfo;
+import org.example.repositories.UserInfoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Множество администраторов в памяти. Загружается один раз при старте
+ * и обновляется при каждом сохранении или удалении анкеты через {@link UserInfoService}.
+ */
+@Component
+public class AdminRegistry implements UserInfoChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(AdminRegistry.class);
+
+    private final UserInfoRepository userInfoRepository;
+    private final Set<Long> adminIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public AdminRegistry(UserInfoRepository userInfoRepository) {
+        this.userInfoRepository = userInfoRepository;
+    }
+
+    @PostConstruct
+    private void loadAdmins() {
+        userInfoRepository.findByRole(UserInfo.Role.ADMIN)
+                .forEach(admin -> adminIds.add(admin.getUserId()));
+        logger.info("Loaded {} admins.", adminIds.size());
+    }
+
+    public boolean isAdmin(Long userId) {
+        return userId != null && adminIds.contains(userId);
+    }
+
+    public Set<Long> getAdminIds() {
+        return Collections.unmodifiableSet(adminIds);
+    }
+
+    @Override
+    public void onUserInfoSaved(UserInfo before, UserInfo after) {
+        if (after.getRole() == UserInfo.Role.ADMIN) {
+            if (adminIds.add(after.getUserId())) {
+                logger.info("User {} granted admin role.", after.getUserId());
+            }
+        } else if (adminIds.remove(after.getUserId())) {
+            logger.info("User {} lost admin role.", after.getUserId());
+        }
+    }
+
+    @Override
+    public void onUserInfoDeleted(UserInfo userInfo) {
+        adminIds.remove(userInfo.getUserId());
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.messaging.DeliveryFailureClassifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Множество чатов, в которые бот не может писать. Отправка в них пропускается сразу, без вызова API.
+ * Чат попадает сюда после ответа Telegram «bot was blocked» / «user is deactivated» / «chat not found»
+ * и удаляется, как только пользователь снова пишет боту. Флаг isBotBlocked в базе
+ * обновляется пачками по расписанию, а не на каждую ошибку.
+ */
+@Component
+public class BlockedChatRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(BlockedChatRegistry.class);
+
+    private final UserInfoService userInfoService;
+    private final Set<Long> blockedUserIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingBlocked = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingUnblocked = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public BlockedChatRegistry(UserInfoService userInfoService) {
+        this.userInfoService = userInfoService;
+    }
+
+    @PostConstruct
+    private void loadBlockedUsers() {
+        blockedUserIds.addAll(userInfoService.getBotBlockedUserIds());
+        logger.info("Loaded {} users who blocked the bot.", blockedUserIds.size());
+    }
+
+    public boolean isBlocked(Long userId) {
+        return userId != null && blockedUserIds.contains(userId);
+    }
+
+    /**
+     * Учитывает неудачную отправку. Временные ошибки игнорируются.
+     *
+     * @return true, если чат признан недоступным
+     */
+    public boolean onDeliveryFailed(Long userId, Throwable error) {
+        DeliveryFailureClassifier.Failure failure = DeliveryFailureClassifier.classify(error);
+        if (userId == null || !failure.isChatUnreachable()) {
+            return false;
+        }
+        if (blockedUserIds.add(userId)) {
+            pendingUnblocked.remove(userId);
+            pendingBlocked.add(userId);
+            logger.info("User {} is unreachable ({}), further messages will be skipped.", userId, failure);
+        }
+        return true;
+    }
+
+    /**
+     * Вызывается на каждое входящее обновление: раз пользователь пишет боту, ему снова можно отправлять сообщения.
+     */
+    public void onUserActive(Long userId) {
+        if (userId != null && blockedUserIds.remove(userId)) {
+            pendingBlocked.remove(userId);
+            pendingUnblocked.add(userId);
+            logger.info("User {} wrote to the bot again, delivery resumed.", userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${aurora.blocked-chats.flush-interval-ms:10000}")
+    @PreDestroy
+    public void flush() {
+        List<Long> blocked = drain(pendingBlocked);
+        List<Long> unblocked = drain(pendingUnblocked);
+        try {
+            if (!blocked.isEmpty()) {
+                logger.info("Marked {} users as bot-blocked.", userInfoService.setBotBlocked(blocked, true).size());
+            }
+            if (!unblocked.isEmpty()) {
+                logger.info("Cleared bot-blocked flag of {} users.", userInfoService.setBotBlocked(unblocked, false).size());
+            }
+        } catch (RuntimeException e) {
+            // Вернём изменения в очередь, если за это время состояние пользователя не поменялось
+            blocked.stream().filter(blockedUserIds::contains).forEach(pendingBlocked::add);
+            unblocked.stream().filter(userId -> !blockedUserIds.contains(userId)).forEach(pendingUnblocked::add);
+            logger.error("Failed to persist bot-blocked flags, will retry.", e);
+        }
+    }
+
+    private static List<Long> drain(Set<Long> pending) {
+        List<Long> drained = new ArrayList<>();
+        for (Long userId : pending) {
+            if (pending.remove(userId)) {
+                drained.add(userId);
+            }
+        }
+        return drained;
+    }
+}
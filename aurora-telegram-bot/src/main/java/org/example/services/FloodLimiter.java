@@ -0,0 +1,208 @@
+package org.example.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ограничение частоты действий пользователя скользящим окном: не больше {@code limit} событий за {@code window}.
+ * Правила задаются строкой {@code aurora.flood.rules} вида {@code key=limit/window;...}, например
+ * {@code *=20/10s;support=1/15m;command:/match_preview=2/1m}. Ключ {@code *} применяется к любому обновлению,
+ * остальные ключи — "command:/имя", "callback:данные", "dialog:РЕЖИМ" или произвольные ("support").
+ * <p>
+ * Для каждого пользователя правило хранит кольцо из {@code limit} меток времени в одном {@code long[]};
+ * кольца, в которых все метки старше окна, удаляются периодической очисткой. Запись в кольцо и его удаление
+ * выполняются внутри {@code compute} по ключу пользователя, поэтому очистка не может удалить кольцо,
+ * в которое в этот момент записывается событие.
+ */
+@Component
+public class FloodLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(FloodLimiter.class);
+
+    public static final String ANY_UPDATE = "*";
+    public static final String SUPPORT_REQUEST = "support";
+
+    private final Map<String, Window> windows = new HashMap<>();
+
+    public FloodLimiter(@Value("${aurora.flood.rules:*=20/10s;support=1/15m}") String rules) {
+        for (String rule : rules.split(";")) {
+            if (rule.isBlank()) {
+                continue;
+            }
+            int separator = rule.lastIndexOf('=');
+            String key = rule.substring(0, separator).trim();
+            String[] limitAndWindow = rule.substring(separator + 1).trim().split("/");
+            windows.put(key, new Window(Integer.parseInt(limitAndWindow[0]), parseDuration(limitAndWindow[1])));
+        }
+        logger.info("Flood limiter rules: {}", windows);
+    }
+
+    /**
+     * Правило ключа для текста пользователю, например "1 за 15 мин".
+     *
+     * @return null, если для ключа нет правила
+     */
+    public String describe(String key) {
+        Window window = windows.get(key);
+        return window == null ? null : window.limit + " за " + formatDuration(Duration.ofNanos(window.windowNanos));
+    }
+
+    /**
+     * Учитывает событие, если оно укладывается в лимит правила. Для ключей без правила всегда true.
+     */
+    public boolean tryAcquire(Long userId, String key) {
+        Window window = windows.get(key);
+        return window == null || userId == null || window.tryAcquire(userId, System.nanoTime());
+    }
+
+    /**
+     * Сколько осталось ждать до следующего разрешённого события, без его учёта.
+     *
+     * @return {@link Duration#ZERO}, если событие разрешено сейчас
+     */
+    public Duration retryAfter(Long userId, String key) {
+        Window window = windows.get(key);
+        if (window == null || userId == null) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(window.retryAfterNanos(userId, System.nanoTime()));
+    }
+
+    /**
+     * Учитывает событие без проверки лимита — например, когда обращение в поддержку уже сохранено.
+     */
+    public void record(Long userId, String key) {
+        Window window = windows.get(key);
+        if (window != null && userId != null) {
+            window.record(userId, System.nanoTime());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${aurora.flood.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Window window : windows.values()) {
+            removed += window.sweep(now);
+        }
+        if (removed > 0) {
+            logger.debug("Flood limiter: {} idle users expired.", removed);
+        }
+    }
+
+    private static Duration parseDuration(String value) {
+        value = value.trim();
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unknown window unit in flood rule: " + value);
+        };
+    }
+
+    private static String formatDuration(Duration duration) {
+        if (duration.toSeconds() % 3600 == 0) {
+            return duration.toHours() + " ч";
+        }
+        if (duration.toSeconds() % 60 == 0) {
+            return duration.toMinutes() + " мин";
+        }
+        return duration.toSeconds() + " с";
+    }
+
+    private static final class Window {
+        private final int limit;
+        private final long windowNanos;
+        // Элемент 0 — индекс следующей записи, элементы 1..limit — метки System.nanoTime() по кругу
+        private final ConcurrentHashMap<Long, long[]> rings = new ConcurrentHashMap<>();
+
+        Window(int limit, Duration window) {
+            this.limit = limit;
+            this.windowNanos = window.toNanos();
+        }
+
+        boolean tryAcquire(Long userId, long now) {
+            boolean[] acquired = new boolean[1];
+            rings.compute(userId, (id, ring) -> {
+                if (ring == null) {
+                    ring = newRing(now);
+                }
+                synchronized (ring) {
+                    int next = (int) ring[0];
+                    // Самая старая метка в кольце — та, которую перезапишет следующее событие
+                    if (now - ring[1 + next] >= windowNanos) {
+                        ring[1 + next] = now;
+                        ring[0] = (next + 1) % limit;
+                        acquired[0] = true;
+                    }
+                }
+                return ring;
+            });
+            return acquired[0];
+        }
+
+        long retryAfterNanos(Long userId, long now) {
+            long[] ring = rings.get(userId);
+            if (ring == null) {
+                return 0;
+            }
+            synchronized (ring) {
+                return Math.max(0, windowNanos - (now - ring[1 + (int) ring[0]]));
+            }
+        }
+
+        void record(Long userId, long now) {
+            rings.compute(userId, (id, ring) -> {
+                if (ring == null) {
+                    ring = newRing(now);
+                }
+                synchronized (ring) {
+                    int next = (int) ring[0];
+                    ring[1 + next] = now;
+                    ring[0] = (next + 1) % limit;
+                }
+                return ring;
+            });
+        }
+
+        int sweep(long now) {
+            int[] removed = new int[1];
+            for (Long userId : rings.keySet()) {
+                // Проверка и удаление атомарны относительно tryAcquire/record того же пользователя
+                rings.computeIfPresent(userId, (id, ring) -> {
+                    synchronized (ring) {
+                        int newest = ((int) ring[0] + limit - 1) % limit;
+                        if (now - ring[1 + newest] < windowNanos) {
+                            return ring;
+                        }
+                    }
+                    removed[0]++;
+                    return null;
+                });
+            }
+            return removed[0];
+        }
+
+        private long[] newRing(long now) {
+            long[] ring = new long[limit + 1];
+            // Пустые слоты считаются метками из-за пределов окна
+            for (int i = 1; i <= limit; i++) {
+                ring[i] = now - windowNanos;
+            }
+            return ring;
+        }
+
+        @Override
+        public String toString() {
+            return limit + "/" + Duration.ofNanos(windowNanos);
+        }
+    }
+}
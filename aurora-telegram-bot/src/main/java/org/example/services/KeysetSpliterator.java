@@ -0,0 +1,55 @@
+package org.example.services;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Ленивый обход таблицы страницами по ключу: следующая страница запрашивается только
+ * после того, как обработана предыдущая, с условием id &gt; id последней строки.
+ */
+class KeysetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private final BiFunction<Long, Integer, List<T>> pageLoader;
+    private final Function<T, Long> idOf;
+    private final int pageSize;
+
+    private Iterator<T> page = Collections.emptyIterator();
+    private Long lastId;
+    private boolean exhausted;
+
+    /**
+     * @param pageLoader loads up to {@code pageSize} rows with id greater than the given one ({@code null} for the first page), ordered by id
+     * @param idOf       extracts the keyset id from a row
+     * @param pageSize   the maximum number of rows per page
+     */
+    KeysetSpliterator(BiFunction<Long, Integer, List<T>> pageLoader, Function<T, Long> idOf, int pageSize) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.pageLoader = pageLoader;
+        this.idOf = idOf;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!page.hasNext()) {
+            if (exhausted) {
+                return false;
+            }
+            List<T> rows = pageLoader.apply(lastId, pageSize);
+            exhausted = rows.size() < pageSize;
+            if (rows.isEmpty()) {
+                return false;
+            }
+            lastId = idOf.apply(rows.get(rows.size() - 1));
+            page = rows.iterator();
+        }
+        action.accept(page.next());
+        return true;
+    }
+}
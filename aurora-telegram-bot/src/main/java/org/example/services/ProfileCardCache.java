@@ -0,0 +1,131 @@
+package org.example.services;
+
+import org.example.interfaces.UserInfoChangeListener;
+import org.example.messaging.Templates;
+import org.example.models.UserInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Готовый HTML карточки анкеты ({@link Templates#profileCard} с контактом) по userId.
+ * Карточка хранится вместе с версией анкеты ({@link UserInfo#getVersion()}), по которой нарисована, и отдаётся
+ * только вызывающему с той же версией. Поэтому карточка, нарисованная по анкете, прочитанной до сохранения,
+ * не выдаётся тем, кто уже читает новую анкету, и не вытесняет карточку более новой версии.
+ * Алиас пользователя тоже часть карточки: если в обновлении от пользователя пришёл другой username,
+ * карточка отбрасывается ({@link #onUsernameSeen}). Флаги анкеты в карточку не входят, поэтому их изменение
+ * (UPDATE без смены версии) карточку не сбрасывает.
+ */
+@Component
+public class ProfileCardCache implements UserInfoChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProfileCardCache.class);
+
+    private final int maxSize;
+    private final Map<Long, CachedCard> cards;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public ProfileCardCache(@Value("${aurora.cache.profile-card.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.cards = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedCard> eldest) {
+                return size() > ProfileCardCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param userInfo    сохранённая анкета; карточка берётся из кэша, только если совпадает её версия
+     * @param aliasLookup получение алиаса в Telegram (вызов API), выполняется только при промахе
+     */
+    public String getCard(UserInfo userInfo, Function<Long, String> aliasLookup) {
+        Long userId = userInfo.getUserId();
+        Long version = userInfo.getVersion();
+        synchronized (cards) {
+            CachedCard cached = cards.get(userId);
+            if (cached != null && cached.version().equals(version)) {
+                hits.incrementAndGet();
+                return cached.html();
+            }
+        }
+
+        misses.incrementAndGet();
+        String alias = aliasLookup.apply(userId);
+        String html = Templates.profileCard(userInfo, Templates.contactInfo(userId, alias));
+
+        if (version != null) {
+            synchronized (cards) {
+                CachedCard cached = cards.get(userId);
+                // Анкета могла быть сохранена, пока карточка рисовалась: более новую карточку не заменяем
+                if (cached == null || cached.version() <= version) {
+                    cards.put(userId, new CachedCard(version, alias, html));
+                }
+            }
+        }
+        return html;
+    }
+
+    /**
+     * Вызывается на каждое обновление от пользователя: сменившийся username делает карточку устаревшей.
+     */
+    public void onUsernameSeen(Long userId, String userName) {
+        String alias = userName != null ? "@" + userName : null;
+        synchronized (cards) {
+            CachedCard cached = cards.get(userId);
+            if (cached != null && !Objects.equals(cached.alias(), alias)) {
+                cards.remove(userId);
+            }
+        }
+    }
+
+    @Override
+    public void onUserInfoSaved(UserInfo before, UserInfo after) {
+        invalidate(after.getUserId());
+    }
+
+    @Override
+    public void onUserInfoDeleted(UserInfo userInfo) {
+        invalidate(userInfo.getUserId());
+    }
+
+    private void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (cards) {
+            cards.remove(userId);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${aurora.cache.user-info.report-interval-ms:3600000}")
+    public void logStatistics() {
+        int size;
+        synchronized (cards) {
+            size = cards.size();
+        }
+        logger.info("Profile card cache: size = {}, hits = {}, misses = {}", size, hits.get(), misses.get());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private record CachedCard(Long version, String alias, String html) {
+    }
+}
@@ -1,31 +1,94 @@
 package org.example.services;
 
 import org.example.models.SupportRequest;
+import org.example.models.projections.StatusCount;
+import org.example.modules.search.SearchIndex;
 import org.example.repositories.SupportRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class SupportRequestService {
 
+    private static final List<SupportRequest.RequestStatus> INBOX_STATUSES =
+            List.of(SupportRequest.RequestStatus.OPEN, SupportRequest.RequestStatus.IN_PROGRESS);
+
     private final SupportRequestRepository supportRequestRepository;
+    private final SearchIndex searchIndex;
 
     @Autowired
-    public SupportRequestService(SupportRequestRepository supportRequestRepository) {
+    public SupportRequestService(SupportRequestRepository supportRequestRepository, SearchIndex searchIndex) {
         this.supportRequestRepository = supportRequestRepository;
+        this.searchIndex = searchIndex;
     }
 
     public void saveSupportRequest(SupportRequest supportRequest) {
-        supportRequestRepository.save(supportRequest);
+        searchIndex.indexSupportRequest(supportRequestRepository.save(supportRequest));
     }
 
     public Optional<SupportRequest> getLastSupportRequest(Long userId) {
         return supportRequestRepository.findTopByUserIdOrderByCreatedAtDesc(userId);
     }
 
+    public Optional<SupportRequest> getSupportRequest(Long id) {
+        return supportRequestRepository.findById(id);
+    }
+
     public long countByStatus(SupportRequest.RequestStatus status) {
         return supportRequestRepository.countByRequestStatus(status);
     }
+
+    /**
+     * Количество обращений в каждом статусе одним GROUP BY; статусы без обращений имеют значение 0.
+     */
+    public Map<SupportRequest.RequestStatus, Long> countAllByStatus() {
+        Map<SupportRequest.RequestStatus, Long> counts = new EnumMap<>(SupportRequest.RequestStatus.class);
+        for (SupportRequest.RequestStatus status : SupportRequest.RequestStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (StatusCount statusCount : supportRequestRepository.countGroupedByStatus()) {
+            counts.put(statusCount.status(), statusCount.count());
+        }
+        return counts;
+    }
+
+    /**
+     * Открытые и взятые в работу обращения, от новых к старым.
+     *
+     * @param beforeId id последнего обращения предыдущей страницы или {@code null} для первой страницы
+     */
+    public List<SupportRequest> getInboxPage(Long beforeId, int pageSize) {
+        return supportRequestRepository.findInboxPage(INBOX_STATUSES,
+                beforeId != null ? beforeId : Long.MAX_VALUE, Limit.of(pageSize));
+    }
+
+    /**
+     * @return true, если обращение было открыто и теперь назначено этому администратору
+     */
+    public boolean claim(Long id, Long adminId) {
+        return supportRequestRepository.claim(id, adminId) > 0;
+    }
+
+    /**
+     * @return true, если обращение было не закрыто и теперь закрыто
+     */
+    public boolean close(Long id, Long adminId) {
+        return supportRequestRepository.close(id, adminId) > 0;
+    }
+
+    public List<SupportRequest> getNotNotifiedRequests(int limit) {
+        return supportRequestRepository.findByAdminNotifiedFalseOrderByIdAsc(Limit.of(limit));
+    }
+
+    public void markAdminNotified(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            supportRequestRepository.markAdminNotified(ids);
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package org.example.services;
+
+import org.example.models.UserInfo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Ограниченный LRU-кэш анкет по userId. Хранит копии сущностей и отдаёт копии,
+ * поэтому изменения объекта вызывающим кодом до сохранения не попадают в кэш.
+ * Отсутствие анкеты тоже кэшируется, чтобы незарегистрированные пользователи не ходили в базу.
+ */
+public class UserInfoCache {
+
+    private final int maxSize;
+    private final Map<Long, Optional<UserInfo>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Увеличивается при каждой записи; загрузка, начатая до записи, не кладёт в кэш устаревшее значение
+    private long writeGeneration;
+
+    public UserInfoCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Optional<UserInfo>> eldest) {
+                boolean evict = size() > UserInfoCache.this.maxSize;
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public Optional<UserInfo> get(Long userId, Supplier<Optional<UserInfo>> loader) {
+        long generation;
+        synchronized (this) {
+            Optional<UserInfo> cached = entries.get(userId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached.map(UserInfo::copy);
+            }
+            generation = writeGeneration;
+        }
+
+        misses.incrementAndGet();
+        Optional<UserInfo> loaded = loader.get();
+
+        synchronized (this) {
+            if (generation == writeGeneration) {
+                entries.put(userId, loaded.map(UserInfo::copy));
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void put(UserInfo userInfo) {
+        writeGeneration++;
+        entries.put(userInfo.getUserId(), Optional.of(userInfo.copy()));
+    }
+
+    /**
+     * Применяет изменение к закэшированной анкете, если она есть; отсутствие в кэше не загружает её из базы.
+     */
+    public synchronized void update(Long userId, Consumer<UserInfo> change) {
+        writeGeneration++;
+        Optional<UserInfo> cached = entries.get(userId);
+        if (cached == null) {
+            return;
+        }
+        if (cached.isPresent()) {
+            change.accept(cached.get());
+        } else {
+            entries.remove(userId);
+        }
+    }
+
+    public synchronized void invalidate(Long userId) {
+        writeGeneration++;
+        entries.remove(userId);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+}
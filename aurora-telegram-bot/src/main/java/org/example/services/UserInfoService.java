@@ -1,25 +1,92 @@
 package org.example.services;
 
+import org.example.interfaces.UserInfoChangeListener;
 import org.example.models.UserInfo;
+import org.example.models.projections.MatchingProfile;
+import org.example.models.projections.ProfileCounts;
+import org.example.models.projections.ProfileFlags;
+import org.example.models.projections.UserRecipient;
 import org.example.repositories.UserInfoRepository;
+import org.example.repositories.UserInfoSpecifications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class UserInfoService {
+    private static final Logger logger = LoggerFactory.getLogger(UserInfoService.class);
+
+    // Каждый id в IN (...) — отдельный параметр запроса, а PostgreSQL принимает их не больше 32767
+    private static final int UPDATE_BATCH_SIZE = 1000;
 
     private final UserInfoRepository userInfoRepository;
+    private final UserInfoCache cache;
+    private final List<UserInfoChangeListener> changeListeners;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int pageSize;
 
     @Autowired
-    public UserInfoService(UserInfoRepository userInfoRepository) {
+    public UserInfoService(UserInfoRepository userInfoRepository,
+                           List<UserInfoChangeListener> changeListeners,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${aurora.cache.user-info.max-size:10000}") int cacheMaxSize,
+                           @Value("${aurora.users.page-size:500}") int pageSize) {
         this.userInfoRepository = userInfoRepository;
+        this.changeListeners = changeListeners;
+        this.cache = new UserInfoCache(cacheMaxSize);
+        this.pageSize = pageSize;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Обходит анкеты, подходящие под фильтр, страницами по {@code aurora.users.page-size} в порядке id.
+     * Каждая страница читается отдельной read-only транзакцией по ключу (id &gt; последний id предыдущей страницы),
+     * поэтому обход всей таблицы занимает память только под одну страницу. Сущности не загружаются:
+     * из базы читаются только столбцы проекции.
+     *
+     * @param filter     условие, выполняемое в SQL
+     * @param projection record, компоненты которого названы как поля {@link UserInfo}
+     * @param idOf       id строки для ключа следующей страницы
+     * @return ленивый поток проекций
+     */
+    public <P extends Record> Stream<P> streamUsers(Specification<UserInfo> filter, Class<P> projection, Function<P, Long> idOf) {
+        return StreamSupport.stream(new KeysetSpliterator<>(
+                (afterId, limit) -> readOnlyTransaction.execute(status -> userInfoRepository.findPage(filter, projection, afterId, limit)),
+                idOf, pageSize), false);
+    }
+
+    /**
+     * Получатели массовых рассылок: из базы читаются только id и user_id.
+     */
+    public Stream<UserRecipient> streamRecipients() {
+        return streamUsers(UserInfoSpecifications.hasUserId(), UserRecipient.class, UserRecipient::id);
+    }
+
+    /**
+     * Анкеты, участвующие в подборе, только с полями, нужными алгоритму сопоставления.
+     */
+    public Stream<MatchingProfile> streamMatchingProfiles() {
+        return streamUsers(UserInfoSpecifications.eligibleForMatching(), MatchingProfile.class, MatchingProfile::id);
+    }
+
+    public long countUsers() {
+        return userInfoRepository.count();
     }
 
-    public List<UserInfo> getAllUsers() {
-        return userInfoRepository.findAll();
+    public List<Long> getBotBlockedUserIds() {
+        return userInfoRepository.findBotBlockedUserIds();
     }
 
     public List<UserInfo> getVisibleUsers() {
@@ -27,41 +94,96 @@ public class UserInfoService {
     }
 
     public Optional<UserInfo> getUserInfoByUserId(Long userId) {
-        return userInfoRepository.findByUserId(userId);
+        return cache.get(userId, () -> userInfoRepository.findByUserId(userId));
     }
 
-    public void saveUserInfo(UserInfo userInfo) {
-        userInfoRepository.save(userInfo);
+    /**
+     * @return сохранённая анкета с новой версией; переданный объект при обновлении не меняется
+     */
+    public UserInfo saveUserInfo(UserInfo userInfo) {
+        UserInfo before = getUserInfoByUserId(userInfo.getUserId()).orElse(null);
+        UserInfo saved;
+        try {
+            saved = userInfoRepository.save(userInfo);
+            cache.put(saved);
+        } catch (RuntimeException e) {
+            cache.invalidate(userInfo.getUserId());
+            throw e;
+        }
+        changeListeners.forEach(listener -> listener.onUserInfoSaved(before, saved));
+        return saved;
     }
 
     public void deleteUserInfo(Long userId) {
-        userInfoRepository.findByUserId(userId).ifPresent(userInfoRepository::delete);
-    }
-
-    public void toggleVisibility(Long userId) {
         userInfoRepository.findByUserId(userId).ifPresent(userInfo -> {
-            userInfo.setIsVisible(!userInfo.getIsVisible());
-            userInfoRepository.save(userInfo);
+            userInfoRepository.delete(userInfo);
+            changeListeners.forEach(listener -> listener.onUserInfoDeleted(userInfo));
         });
+        cache.invalidate(userId);
     }
 
-    public String formatUserProfile(UserInfo userInfo, String contactInfo) {
+    /**
+     * Переключает видимость анкеты одним UPDATE ... RETURNING, без чтения сущности.
+     *
+     * @return новое значение видимости или пустой Optional, если анкеты нет
+     */
+    public Optional<Boolean> toggleVisibility(Long userId) {
+        Optional<ProfileFlags> flags = userInfoRepository.toggleVisibility(userId);
+        flags.ifPresentOrElse(
+                after -> flagChanged(List.of(after), UserInfo.Flag.VISIBLE),
+                () -> cache.invalidate(userId));
+        return flags.map(ProfileFlags::getIsVisible);
+    }
 
-        return String.format("""
-                        %s
-                        Возраст: %s
+    /**
+     * Ставит или снимает отметку о блокировке бота для набора пользователей запросами
+     * по {@value #UPDATE_BATCH_SIZE} user id.
+     *
+     * @return user id анкет, у которых значение изменилось
+     */
+    public List<Long> setBotBlocked(Collection<Long> userIds, boolean blocked) {
+        List<Long> ids = List.copyOf(userIds);
+        List<Long> changed = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += UPDATE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + UPDATE_BATCH_SIZE, ids.size()));
+            changed.addAll(flagChanged(userInfoRepository.updateBotBlocked(batch, blocked), UserInfo.Flag.BOT_BLOCKED));
+        }
+        return changed;
+    }
 
-                        Интересно обсудить: %s
-                        Фан-факт: %s
+    /**
+     * Считает анкеты по состояниям одним агрегирующим запросом.
+     */
+    public ProfileCounts countByState() {
+        return userInfoRepository.countByState();
+    }
+
+    private List<Long> flagChanged(List<ProfileFlags> changed, UserInfo.Flag flag) {
+        List<Long> userIds = new ArrayList<>(changed.size());
+        for (ProfileFlags after : changed) {
+            cache.update(after.getUserId(), userInfo -> {
+                userInfo.setIsVisible(after.getIsVisible());
+                userInfo.setIsBanned(after.getIsBanned());
+                userInfo.setIsBotBlocked(after.getIsBotBlocked());
+            });
+            changeListeners.forEach(listener -> listener.onFlagChanged(flag, after));
+            userIds.add(after.getUserId());
+        }
+        return userIds;
+    }
+
+    /**
+     * Returns the read-through cache of user profiles, e.g. to report its hit ratio.
+     */
+    public UserInfoCache getCache() {
+        return cache;
+    }
 
-                        Напишите собеседнику в Telegram – %s
-                        """,
-                userInfo.getName(),
-                userInfo.getAge(),
-                userInfo.getDiscussionTopic(),
-                userInfo.getFunFact(),
-                contactInfo
-        );
+    @Scheduled(fixedRateString = "${aurora.cache.user-info.report-interval-ms:3600000}")
+    public void logCacheStatistics() {
+        logger.info("UserInfo cache: size = {}, hits = {}, misses = {}, evictions = {}, hit ratio = {}",
+                cache.size(), cache.getHits(), cache.getMisses(), cache.getEvictions(),
+                String.format("%.3f", cache.getHitRatio()));
     }
 
     public List<UserInfo> getUsersByRole(UserInfo.Role role) {
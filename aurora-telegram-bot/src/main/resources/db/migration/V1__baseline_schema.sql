@@ -0,0 +1,117 @@
+-- Базовая схема в том виде, в каком её создавал spring.jpa.hibernate.ddl-auto=update.
+-- IF NOT EXISTS: на уже существующей базе миграция создаёт только недостающие таблицы,
+-- а недостающие столбцы существующих таблиц добавляются в конце файла.
+
+CREATE TABLE IF NOT EXISTS user_info
+(
+    id               BIGSERIAL PRIMARY KEY,
+    user_id          BIGINT,
+    name             VARCHAR(255),
+    age              VARCHAR(255),
+    discussion_topic VARCHAR(500),
+    fun_fact         VARCHAR(500),
+    is_visible       BOOLEAN,
+    is_banned        BOOLEAN,
+    is_bot_blocked   BOOLEAN,
+    role             VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS support_request
+(
+    id         BIGSERIAL PRIMARY KEY,
+    user_id    BIGINT,
+    message    VARCHAR(2000),
+    created_at TIMESTAMP(6) NOT NULL,
+    status     VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS daily_message
+(
+    id         BIGSERIAL PRIMARY KEY,
+    text       VARCHAR(2000) NOT NULL,
+    sent       BOOLEAN       NOT NULL,
+    created_at TIMESTAMP(6)  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS profile_statistics
+(
+    id                   BIGSERIAL PRIMARY KEY,
+    date                 DATE,
+    total_profiles       BIGINT,
+    active_profiles      BIGINT,
+    banned_profiles      BIGINT,
+    bot_blocked_profiles BIGINT,
+    eligible_profiles    BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS profile_matching_result
+(
+    id               BIGSERIAL PRIMARY KEY,
+    execution_time   TIMESTAMP(6),
+    status           VARCHAR(255),
+    error_message    TEXT,
+    total_users      INTEGER,
+    eligible_users   INTEGER,
+    candidate_pairs  INTEGER,
+    matched_pairs    INTEGER,
+    peak_heap_bytes  BIGINT,
+    min_score        REAL,
+    median_score     REAL,
+    p90score         REAL,
+    max_score        REAL,
+    mean_score       REAL,
+    zero_score_pairs INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS matched_users
+(
+    result_id BIGINT NOT NULL REFERENCES profile_matching_result (id),
+    user_pair VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS unpaired_users
+(
+    result_id BIGINT NOT NULL REFERENCES profile_matching_result (id),
+    user_id   BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS matching_phase_duration
+(
+    result_id   BIGINT       NOT NULL REFERENCES profile_matching_result (id),
+    phase       VARCHAR(255) NOT NULL,
+    duration_ms BIGINT,
+    PRIMARY KEY (result_id, phase)
+);
+
+CREATE TABLE IF NOT EXISTS match_delivery
+(
+    id                BIGSERIAL PRIMARY KEY,
+    result_id         BIGINT       NOT NULL,
+    recipient_user_id BIGINT       NOT NULL,
+    partner_user_id   BIGINT       NOT NULL,
+    status            VARCHAR(255) NOT NULL,
+    delivered_at      TIMESTAMP(6)
+);
+
+-- База, созданная ddl-auto=update до перехода на Flyway: таблица profile_matching_result
+-- была без столбцов отчёта о подборе, а текстовые поля анкеты, обращения и error_message — VARCHAR(255)
+ALTER TABLE profile_matching_result
+    ADD COLUMN IF NOT EXISTS total_users      INTEGER,
+    ADD COLUMN IF NOT EXISTS eligible_users   INTEGER,
+    ADD COLUMN IF NOT EXISTS candidate_pairs  INTEGER,
+    ADD COLUMN IF NOT EXISTS matched_pairs    INTEGER,
+    ADD COLUMN IF NOT EXISTS peak_heap_bytes  BIGINT,
+    ADD COLUMN IF NOT EXISTS min_score        REAL,
+    ADD COLUMN IF NOT EXISTS median_score     REAL,
+    ADD COLUMN IF NOT EXISTS p90score         REAL,
+    ADD COLUMN IF NOT EXISTS max_score        REAL,
+    ADD COLUMN IF NOT EXISTS mean_score       REAL,
+    ADD COLUMN IF NOT EXISTS zero_score_pairs INTEGER,
+    ALTER COLUMN error_message TYPE TEXT;
+
+ALTER TABLE user_info
+    ALTER COLUMN discussion_topic TYPE VARCHAR(500),
+    ALTER COLUMN fun_fact TYPE VARCHAR(500);
+
+ALTER TABLE support_request
+    ALTER COLUMN message TYPE VARCHAR(2000);
@@ -0,0 +1,40 @@
+-- findByUserId выполняется на каждое обновление от Telegram и ожидает не больше одной строки.
+-- Дубликаты, которые могли появиться без ограничения, миграция не удаляет: она останавливается
+-- со списком user_id, и лишние анкеты нужно разобрать вручную (см. раздел «Обновление базы» в README).
+DO
+$$
+    DECLARE
+        duplicates TEXT;
+    BEGIN
+        SELECT string_agg(user_id || ' (' || copies || ')', ', ')
+        INTO duplicates
+        FROM (SELECT user_id, count(*) AS copies
+              FROM user_info
+              WHERE user_id IS NOT NULL
+              GROUP BY user_id
+              HAVING count(*) > 1
+              ORDER BY user_id
+              LIMIT 50) d;
+
+        IF duplicates IS NOT NULL THEN
+            RAISE EXCEPTION 'user_info has several profiles for user_id (copies): %. Remove the extra rows before migrating.', duplicates;
+        END IF;
+    END
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_info_user_id ON user_info (user_id);
+
+-- Анкеты, участвующие в подборе: постраничное чтение по id (streamMatchingProfiles) и подсчёт в статистике
+CREATE INDEX IF NOT EXISTS ix_user_info_eligible ON user_info (id) INCLUDE (user_id)
+    WHERE is_visible AND NOT is_banned AND NOT is_bot_blocked;
+
+-- Последнее обращение пользователя в поддержку (findTopByUserIdOrderByCreatedAtDesc)
+CREATE INDEX IF NOT EXISTS ix_support_request_user_created ON support_request (user_id, created_at DESC);
+
+CREATE INDEX IF NOT EXISTS ix_profile_statistics_date ON profile_statistics (date);
+
+-- Незавершённый план подбора и его неотправленные уведомления при перезапуске
+CREATE INDEX IF NOT EXISTS ix_profile_matching_result_status_time ON profile_matching_result (status, execution_time DESC);
+CREATE INDEX IF NOT EXISTS ix_match_delivery_result_status ON match_delivery (result_id, status, id);
+
+CREATE INDEX IF NOT EXISTS ix_daily_message_unsent ON daily_message (created_at) WHERE NOT sent;
@@ -0,0 +1,13 @@
+CREATE TABLE profile_statistics_rollup
+(
+    id                   BIGSERIAL PRIMARY KEY,
+    period               VARCHAR(255) NOT NULL,
+    period_start         DATE         NOT NULL,
+    samples              INTEGER      NOT NULL,
+    total_profiles       BIGINT,
+    active_profiles      BIGINT,
+    banned_profiles      BIGINT,
+    bot_blocked_profiles BIGINT,
+    eligible_profiles    BIGINT,
+    CONSTRAINT ux_profile_statistics_rollup_period UNIQUE (period, period_start)
+);
@@ -0,0 +1,14 @@
+-- Журнал активности: только вставки, секционирование по месяцам.
+-- Месячные секции создаёт приложение (ActivityLog.createPartitions), старые можно удалять целиком через DROP TABLE.
+CREATE TABLE activity_event
+(
+    occurred_at TIMESTAMPTZ NOT NULL,
+    user_id     BIGINT,
+    type        SMALLINT    NOT NULL,
+    name        VARCHAR(64)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE TABLE activity_event_default PARTITION OF activity_event DEFAULT;
+
+CREATE INDEX ix_activity_event_occurred_at ON activity_event USING brin (occurred_at);
+CREATE INDEX ix_activity_event_type_time ON activity_event (type, occurred_at);
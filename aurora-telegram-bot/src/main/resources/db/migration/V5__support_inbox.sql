@@ -0,0 +1,15 @@
+ALTER TABLE support_request
+    ADD COLUMN assignee_user_id BIGINT,
+    ADD COLUMN updated_at       TIMESTAMP(6),
+    ADD COLUMN admin_notified   BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Обращения, созданные до появления сводок, в сводку не попадают
+UPDATE support_request
+SET admin_notified = TRUE,
+    updated_at     = created_at;
+
+-- Постраничный просмотр входящих по статусу от новых к старым
+CREATE INDEX ix_support_request_status_id ON support_request (status, id DESC);
+
+-- Очередь сводки для администраторов
+CREATE INDEX ix_support_request_not_notified ON support_request (id) WHERE NOT admin_notified;
@@ -0,0 +1,18 @@
+-- Повторный подбор собеседника по запросу пользователя (/new_partner).
+-- Уникальность (week_start, user_id) — не больше одного повторного подбора на пользователя в неделю;
+-- пара резервируется одной вставкой двух строк, поэтому два параллельных запроса не получат одного партнёра.
+CREATE TABLE rematch_reservation
+(
+    id                BIGSERIAL PRIMARY KEY,
+    week_start        DATE         NOT NULL,
+    user_id           BIGINT       NOT NULL,
+    partner_user_id   BIGINT       NOT NULL,
+    requester_user_id BIGINT       NOT NULL,
+    created_at        TIMESTAMP(6) NOT NULL
+);
+
+CREATE UNIQUE INDEX ux_rematch_reservation_week_user ON rematch_reservation (week_start, user_id);
+
+-- История пар пользователя: с кем его уже знакомили
+CREATE INDEX ix_rematch_reservation_user ON rematch_reservation (user_id) INCLUDE (partner_user_id);
+CREATE INDEX IF NOT EXISTS ix_match_delivery_recipient ON match_delivery (recipient_user_id) INCLUDE (partner_user_id);
@@ -0,0 +1,26 @@
+-- Исходящие сообщения: записываются в одной транзакции с изменением состояния и отправляются фоновым воркером.
+-- idempotency_key не даёт поставить одно и то же сообщение дважды (например, при повторном запуске рассылки после сбоя).
+CREATE TABLE outbox_message
+(
+    id              BIGSERIAL PRIMARY KEY,
+    idempotency_key VARCHAR(128)  NOT NULL,
+    chat_id         BIGINT        NOT NULL,
+    kind            VARCHAR(16)   NOT NULL,
+    text            VARCHAR(4096) NOT NULL,
+    photo           VARCHAR(1024),
+    buttons         TEXT,
+    status          VARCHAR(16)   NOT NULL DEFAULT 'PENDING',
+    attempts        INTEGER       NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6)  NOT NULL DEFAULT now(),
+    last_error      VARCHAR(255),
+    created_at      TIMESTAMP(6)  NOT NULL DEFAULT now(),
+    completed_at    TIMESTAMP(6)
+);
+
+CREATE UNIQUE INDEX ux_outbox_message_idempotency_key ON outbox_message (idempotency_key);
+
+-- Очередь воркера: только ожидающие отправки строки
+CREATE INDEX ix_outbox_message_pending ON outbox_message (next_attempt_at, id) WHERE status = 'PENDING';
+
+-- Очистка завершённых строк
+CREATE INDEX ix_outbox_message_completed ON outbox_message (completed_at) WHERE status <> 'PENDING';
@@ -0,0 +1,3 @@
+-- Версия строки анкеты (JPA @Version): увеличивается при каждом сохранении анкеты.
+-- По ней кэш карточек отличает HTML, нарисованный по устаревшей анкете.
+ALTER TABLE user_info ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;